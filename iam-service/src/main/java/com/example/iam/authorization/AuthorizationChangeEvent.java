@@ -0,0 +1,35 @@
+package com.example.iam.authorization;
+
+import com.example.iam.entity.BaseEntity;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+// Published by the admin services after they change data the authorization engine caches.
+// A null organizationId means the affected organization is unknown and every organization is refreshed.
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class AuthorizationChangeEvent {
+
+    public enum Type {
+        RESOURCE,
+        ROLE,
+        USER,
+        CLIENT,
+        SCOPE,
+        POLICY
+    }
+
+    private final Long organizationId;
+    private final Type type;
+
+    public static AuthorizationChangeEvent resources(Long organizationId) {
+        return new AuthorizationChangeEvent(organizationId, Type.RESOURCE);
+    }
+
+    public static AuthorizationChangeEvent of(Type type, BaseEntity entity) {
+        Long organizationId = entity.getOrganization() != null ? entity.getOrganization().getId() : null;
+        return new AuthorizationChangeEvent(organizationId, type);
+    }
+}
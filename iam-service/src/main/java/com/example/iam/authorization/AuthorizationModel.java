@@ -0,0 +1,177 @@
+package com.example.iam.authorization;
+
+import com.example.iam.entity.Policy;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable snapshot of everything a decision needs for one organization: the permission dictionary,
+ * the resource trie, users and clients with their role permissions, and the policy index.
+ * Snapshots are never modified; a change produces a copy with the affected part replaced and a
+ * higher version, so a reader always sees one consistent state for the whole decision.
+ * Resource and subject bitsets are always encoded with this snapshot's dictionary.
+ */
+@Getter
+public final class AuthorizationModel {
+
+    private static final long[] NO_IDS = new long[0];
+
+    // Independently rebuildable parts of the snapshot.
+    public enum Part {
+        RESOURCES,
+        SUBJECTS,
+        POLICIES
+    }
+
+    private final Long organizationId;
+    private final long version;
+    private final PermissionDictionary permissions;
+    private final ResourcePathTrie resources;
+    private final Subjects subjects;
+    private final PolicyIndex policies;
+
+    // Memoized fan-in views; derived from the fields above, so the snapshot stays logically immutable.
+    @Getter(AccessLevel.NONE)
+    private final Map<GrantKey, Map<Long, Map<String, PolicyIndex.Bucket>>> inheritedViews = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final Map<SubjectEntry, Map<Long, Map<String, PolicyIndex.Bucket>>> subjectViews = new ConcurrentHashMap<>();
+
+    AuthorizationModel(Long organizationId, long version, PermissionDictionary permissions, ResourcePathTrie resources,
+                       Subjects subjects, PolicyIndex policies) {
+        this.organizationId = organizationId;
+        this.version = version;
+        this.permissions = permissions;
+        this.resources = resources;
+        this.subjects = subjects;
+        this.policies = policies;
+    }
+
+    // A subject's own policies plus those of its roles and scopes, as one resourceId -> action -> bucket view.
+    // Subjects with the same roles and scopes share the inherited view, so it is built once per distinct grant
+    // set; only subjects that also have direct policies get a merged copy of their own.
+    public Map<Long, Map<String, PolicyIndex.Bucket>> policiesFor(SubjectEntry subject) {
+        Map<Long, Map<String, PolicyIndex.Bucket>> direct = policies.forSubject(subject.getType(), subject.getId());
+        Map<Long, Map<String, PolicyIndex.Bucket>> inherited = inheritedViews.computeIfAbsent(
+                new GrantKey(subject.getRoleIds(), subject.getScopeIds()), this::inheritedView);
+        if (inherited.isEmpty()) {
+            return direct;
+        }
+        if (direct.isEmpty()) {
+            return inherited;
+        }
+        return subjectViews.computeIfAbsent(subject, s -> PolicyIndex.merge(List.of(direct, inherited)));
+    }
+
+    // For stateless user tokens: the policies of the roles signed into the token instead of the user's current
+    // roles, so a role's DENY still applies while a token claims it. The user's own and scope policies come
+    // from the model; a user missing from the model gets only the claimed roles' policies.
+    public Map<Long, Map<String, PolicyIndex.Bucket>> policiesFor(SubjectEntry subject, Set<String> claimedRoles) {
+        long[] roleIds = roleIds(claimedRoles);
+        if (subject != null && Arrays.equals(roleIds, subject.getRoleIds())) {
+            return policiesFor(subject);
+        }
+        Map<Long, Map<String, PolicyIndex.Bucket>> inherited = inheritedViews.computeIfAbsent(
+                new GrantKey(roleIds, subject != null ? subject.getScopeIds() : NO_IDS), this::inheritedView);
+        Map<Long, Map<String, PolicyIndex.Bucket>> direct = subject != null
+                ? policies.forSubject(subject.getType(), subject.getId())
+                : Collections.emptyMap();
+        if (inherited.isEmpty()) {
+            return direct;
+        }
+        if (direct.isEmpty()) {
+            return inherited;
+        }
+        return PolicyIndex.merge(List.of(direct, inherited));
+    }
+
+    // Sorted ids of the named roles; names that no longer exist are skipped.
+    private long[] roleIds(Set<String> roleNames) {
+        return roleNames.stream()
+                .map(subjects.roleIdsByName::get)
+                .filter(Objects::nonNull)
+                .flatMapToLong(Arrays::stream)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    private Map<Long, Map<String, PolicyIndex.Bucket>> inheritedView(GrantKey key) {
+        List<Map<Long, Map<String, PolicyIndex.Bucket>>> views = new ArrayList<>();
+        for (long roleId : key.roleIds) {
+            addIfPresent(views, policies.forSubject(Policy.SubjectType.ROLE, roleId));
+        }
+        for (long scopeId : key.scopeIds) {
+            addIfPresent(views, policies.forSubject(Policy.SubjectType.SCOPE, scopeId));
+        }
+        if (views.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return views.size() == 1 ? views.get(0) : PolicyIndex.merge(views);
+    }
+
+    private static void addIfPresent(List<Map<Long, Map<String, PolicyIndex.Bucket>>> views,
+                                     Map<Long, Map<String, PolicyIndex.Bucket>> view) {
+        if (!view.isEmpty()) {
+            views.add(view);
+        }
+    }
+
+    public SubjectEntry findUser(String username) {
+        return subjects.users.get(username);
+    }
+
+    public SubjectEntry findClient(String clientId) {
+        return subjects.clients.get(clientId);
+    }
+
+    private static final class GrantKey {
+        private final long[] roleIds;
+        private final long[] scopeIds;
+        private final int hash;
+
+        private GrantKey(long[] roleIds, long[] scopeIds) {
+            this.roleIds = roleIds;
+            this.scopeIds = scopeIds;
+            this.hash = 31 * Arrays.hashCode(roleIds) + Arrays.hashCode(scopeIds);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof GrantKey other
+                    && Arrays.equals(roleIds, other.roleIds)
+                    && Arrays.equals(scopeIds, other.scopeIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // Users and clients keyed by the name carried in the token subject, plus role id -> permission bitset
+    // and role name -> role ids for every role of the organization.
+    @Getter
+    public static final class Subjects {
+        private final Map<String, SubjectEntry> users;
+        private final Map<String, SubjectEntry> clients;
+        private final Map<Long, long[]> rolePermissions;
+        private final Map<String, long[]> roleIdsByName;
+
+        Subjects(Map<String, SubjectEntry> users, Map<String, SubjectEntry> clients,
+                 Map<Long, long[]> rolePermissions, Map<String, long[]> roleIdsByName) {
+            this.users = users;
+            this.clients = clients;
+            this.rolePermissions = rolePermissions;
+            this.roleIdsByName = roleIdsByName;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.iam.authorization;
+
+import com.example.iam.authorization.condition.PolicyConditionCache;
+import com.example.iam.entity.ClientApplication;
+import com.example.iam.entity.Permission;
+import com.example.iam.entity.Policy;
+import com.example.iam.entity.Resource;
+import com.example.iam.entity.Role;
+import com.example.iam.entity.User;
+import com.example.iam.repository.ClientApplicationRepository;
+import com.example.iam.repository.PolicyRepository;
+import com.example.iam.repository.ResourceRepository;
+import com.example.iam.repository.RoleRepository;
+import com.example.iam.repository.UserRepository;
+import com.example.iam.security.OrganizationContextHolder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Reads the parts of an AuthorizationModel from the database. The model for a null organization
+// (tokens without an organization) spans every resource but only subjects and policies that have no
+// organization. Each load runs in its own read-only transaction because rebuilds are triggered
+// after the admin transaction has already committed.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthorizationModelLoader {
+
+    private static final long[] NO_IDS = new long[0];
+
+    private final ResourceRepository resourceRepository;
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final ClientApplicationRepository clientApplicationRepository;
+    private final PolicyRepository policyRepository;
+    private final PolicyConditionCache conditionCache;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public AuthorizationModel load(Long organizationId, long version) {
+        return rebuild(null, organizationId, EnumSet.allOf(AuthorizationModel.Part.class), version);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public AuthorizationModel rebuild(AuthorizationModel current, Long organizationId,
+                                      Set<AuthorizationModel.Part> parts, long version) {
+        // Run the load under the target organization so the Hibernate organization filter agrees with the queries.
+        Long previous = OrganizationContextHolder.getOrganizationId();
+        OrganizationContextHolder.setOrganizationId(organizationId);
+        try {
+            boolean full = current == null;
+            List<Resource> resources = full || parts.contains(AuthorizationModel.Part.RESOURCES)
+                    ? loadResources(organizationId) : null;
+            List<User> users = full || parts.contains(AuthorizationModel.Part.SUBJECTS)
+                    ? loadUsers(organizationId) : null;
+
+            // Keep the numbering while it covers every permission in use, so the untouched part's bitsets stay
+            // valid. Otherwise renumber and re-encode both parts against the new dictionary.
+            PermissionDictionary dictionary = full ? null : current.getPermissions();
+            if (dictionary == null || !dictionary.containsAll(permissionsOf(resources, users))) {
+                resources = resources != null ? resources : loadResources(organizationId);
+                users = users != null ? users : loadUsers(organizationId);
+                dictionary = PermissionDictionary.build(permissionsOf(resources, users));
+            }
+
+            ResourcePathTrie trie = resources != null
+                    ? buildTrie(resources, dictionary)
+                    : current.getResources();
+            AuthorizationModel.Subjects subjects = users != null
+                    ? buildSubjects(users, loadClients(organizationId), loadScopeIds(organizationId),
+                            loadRoleIdsByName(organizationId), dictionary)
+                    : current.getSubjects();
+            PolicyIndex policies = full || parts.contains(AuthorizationModel.Part.POLICIES)
+                    ? loadPolicies(organizationId)
+                    : current.getPolicies();
+
+            AuthorizationModel model = new AuthorizationModel(organizationId, version, dictionary, trie, subjects, policies);
+            log.debug("Built authorization model v{} for organization {} ({}): {} permissions, {} resources, {} users, {} clients, {} policies",
+                    version, organizationId, full ? "full" : parts, dictionary.size(), trie.size(),
+                    subjects.getUsers().size(), subjects.getClients().size(), policies.size());
+            return model;
+        } finally {
+            if (previous != null) {
+                OrganizationContextHolder.setOrganizationId(previous);
+            } else {
+                OrganizationContextHolder.clear();
+            }
+        }
+    }
+
+    private List<Resource> loadResources(Long organizationId) {
+        return organizationId != null
+                ? resourceRepository.findByOrganizationIdWithPermissions(organizationId)
+                : resourceRepository.findAllWithPermissions();
+    }
+
+    private List<User> loadUsers(Long organizationId) {
+        return organizationId != null
+                ? userRepository.findByOrganizationIdWithRolesAndPermissions(organizationId)
+                : userRepository.findWithoutOrganizationWithRolesAndPermissions();
+    }
+
+    private List<ClientApplication> loadClients(Long organizationId) {
+        return organizationId != null
+                ? clientApplicationRepository.findByOrganizationId(organizationId)
+                : clientApplicationRepository.findByOrganizationIsNull();
+    }
+
+    // Scope ids per subject type and subject id, from (subject id, scope id) rows.
+    private Map<Policy.SubjectType, Map<Long, long[]>> loadScopeIds(Long organizationId) {
+        List<Object[]> userScopes = organizationId != null
+                ? userRepository.findScopeIdsByOrganizationId(organizationId)
+                : userRepository.findScopeIdsWithoutOrganization();
+        List<Object[]> clientScopes = organizationId != null
+                ? clientApplicationRepository.findScopeIdsByOrganizationId(organizationId)
+                : clientApplicationRepository.findScopeIdsWithoutOrganization();
+        Map<Policy.SubjectType, Map<Long, long[]>> scopeIds = new EnumMap<>(Policy.SubjectType.class);
+        scopeIds.put(Policy.SubjectType.USER, groupIds(userScopes));
+        scopeIds.put(Policy.SubjectType.CLIENT, groupIds(clientScopes));
+        return scopeIds;
+    }
+
+    // Role ids by name for every role of the organization, including roles no user holds any more, so
+    // role names signed into a token still resolve after the user has left the role.
+    private Map<String, long[]> loadRoleIdsByName(Long organizationId) {
+        List<Object[]> roles = organizationId != null
+                ? roleRepository.findNamesAndIdsByOrganizationId(organizationId)
+                : roleRepository.findNamesAndIdsWithoutOrganization();
+        Map<String, List<Long>> grouped = new HashMap<>();
+        for (Object[] role : roles) {
+            grouped.computeIfAbsent((String) role[0], name -> new ArrayList<>(1)).add((Long) role[1]);
+        }
+        Map<String, long[]> ids = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((name, values) -> ids.put(name, sortedIds(values)));
+        return ids;
+    }
+
+    private static Map<Long, long[]> groupIds(List<Object[]> pairs) {
+        Map<Long, List<Long>> grouped = new HashMap<>();
+        for (Object[] pair : pairs) {
+            grouped.computeIfAbsent((Long) pair[0], id -> new ArrayList<>(2)).add((Long) pair[1]);
+        }
+        Map<Long, long[]> ids = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((id, values) -> ids.put(id, sortedIds(values)));
+        return ids;
+    }
+
+    private static long[] sortedIds(Collection<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+
+    private static List<Permission> permissionsOf(List<Resource> resources, List<User> users) {
+        List<Permission> permissions = new ArrayList<>();
+        if (resources != null) {
+            resources.forEach(resource -> permissions.addAll(resource.getPermissions()));
+        }
+        if (users != null) {
+            users.forEach(user -> user.getRoles().forEach(role -> permissions.addAll(role.getPermissions())));
+        }
+        return permissions;
+    }
+
+    private static ResourcePathTrie buildTrie(List<Resource> resources, PermissionDictionary dictionary) {
+        return ResourcePathTrie.build(resources.stream()
+                .map(resource -> ResourceEntry.from(resource, dictionary))
+                .toList());
+    }
+
+    private static AuthorizationModel.Subjects buildSubjects(List<User> users, List<ClientApplication> clients,
+                                                             Map<Policy.SubjectType, Map<Long, long[]>> scopeIds,
+                                                             Map<String, long[]> roleIdsByName,
+                                                             PermissionDictionary dictionary) {
+        // Every role is encoded once and its bitset is shared by all users holding only that role.
+        Map<Long, long[]> rolePermissions = new HashMap<>();
+        Map<String, SubjectEntry> userEntries = new HashMap<>(users.size() * 2);
+        for (User user : users) {
+            Set<String> roles = new HashSet<>();
+            List<Long> roleIds = new ArrayList<>(user.getRoles().size());
+            long[] permissionBits = PermissionBits.EMPTY;
+            for (Role role : user.getRoles()) {
+                roles.add(role.getName());
+                roleIds.add(role.getId());
+                long[] roleBits = rolePermissions.computeIfAbsent(role.getId(), id -> dictionary.encode(role.getPermissions().stream()
+                        .map(Permission::getName)
+                        .toList()));
+                permissionBits = PermissionBits.union(permissionBits, roleBits);
+            }
+            userEntries.put(user.getUsername(), new SubjectEntry(user.getId(), user.getUsername(),
+                    Policy.SubjectType.USER, Collections.unmodifiableSet(roles), sortedIds(roleIds),
+                    scopeIds.get(Policy.SubjectType.USER).getOrDefault(user.getId(), NO_IDS), permissionBits));
+        }
+
+        Map<String, SubjectEntry> clientEntries = new HashMap<>(clients.size() * 2);
+        for (ClientApplication client : clients) {
+            clientEntries.put(client.getClientId(), new SubjectEntry(client.getId(), client.getClientId(),
+                    Policy.SubjectType.CLIENT, Collections.emptySet(), NO_IDS,
+                    scopeIds.get(Policy.SubjectType.CLIENT).getOrDefault(client.getId(), NO_IDS), PermissionBits.EMPTY));
+        }
+        return new AuthorizationModel.Subjects(Collections.unmodifiableMap(userEntries),
+                Collections.unmodifiableMap(clientEntries), Collections.unmodifiableMap(rolePermissions),
+                Collections.unmodifiableMap(roleIdsByName));
+    }
+
+    private PolicyIndex loadPolicies(Long organizationId) {
+        List<Policy> policies = organizationId != null
+                ? policyRepository.findByOrganizationId(organizationId)
+                : policyRepository.findByOrganizationIsNull();
+        return PolicyIndex.build(policies.stream()
+                .map(policy -> new PolicyEntry(policy.getId(), policy.getSubjectType(), policy.getSubjectId(),
+                        policy.getResource().getId(), policy.getAction(), policy.getEffect(),
+                        conditionCache.get(policy)))
+                .toList());
+    }
+}
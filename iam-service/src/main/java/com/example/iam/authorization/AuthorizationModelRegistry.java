@@ -0,0 +1,193 @@
+package com.example.iam.authorization;
+
+import com.example.iam.security.JwtTokenProvider;
+import com.example.iam.security.VerifiedToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Holds the current AuthorizationModel of every organization that has been queried. Models are built
+// lazily on first use and, after an AuthorizationChangeEvent, replaced by a copy in which only the
+// affected part of the affected organization has been reloaded. Readers never block on a rebuild;
+// loads and rebuilds of the same organization are serialized on a per-organization lock, so a slower,
+// older load can never win. The database work runs outside the map, which is only touched to swap entries.
+//
+// Change events only reach the node that made the change. Other nodes pick it up when the model
+// expires: a model is fully reloaded once it is older than app.authorization.model.max-age, so a
+// change made elsewhere takes effect on every node within that window. While one thread reloads an
+// expired model, other readers keep using it.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthorizationModelRegistry {
+
+    // Key used for tokens without an organization (super admin); that model spans all resources.
+    private static final Long ALL_ORGANIZATIONS = -1L;
+
+    private final AuthorizationModelLoader loader;
+    private final Map<Long, AuthorizationModel> models = new ConcurrentHashMap<>();
+    private final Map<Long, ReentrantLock> locks = new ConcurrentHashMap<>();
+    // Organization key -> System.nanoTime() of the last full load; partial rebuilds keep the older parts.
+    private final Map<Long, Long> loadedAt = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    // Dictionaries replaced by a renumbering, kept so bitsets in tokens issued before it still decode.
+    private final Cache<String, PermissionDictionary> previousDictionaries = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .build();
+
+    @Value("${app.authorization.model.max-age:PT1M}")
+    private Duration maxAge;
+
+    public AuthorizationModel current(Long organizationId) {
+        Long key = key(organizationId);
+        AuthorizationModel model = models.get(key);
+        if (model != null && !isExpired(key)) {
+            return model;
+        }
+        ReentrantLock lock = lock(key);
+        if (model == null) {
+            lock.lock();
+        } else if (!lock.tryLock()) {
+            // Another thread is already loading or rebuilding this organization's model.
+            return model;
+        }
+        try {
+            model = models.get(key);
+            if (model == null || isExpired(key)) {
+                AuthorizationModel loaded = loader.load(organizationId, versions.incrementAndGet());
+                if (model != null) {
+                    keepPreviousDictionary(key, model, loaded);
+                }
+                models.put(key, loaded);
+                loadedAt.put(key, System.nanoTime());
+                model = loaded;
+            }
+            return model;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The organization's dictionary with the given version, or null if this node does not know it.
+    public PermissionDictionary dictionary(Long organizationId, String version) {
+        PermissionDictionary current = current(organizationId).getPermissions();
+        if (current.getVersion().equals(version)) {
+            return current;
+        }
+        return previousDictionaries.getIfPresent(key(organizationId) + ":" + version);
+    }
+
+    // The token's permissions as a bitset over the model's dictionary. Compact claims encoded with a
+    // dictionary this node no longer knows fall back to the subject's current permissions in the model.
+    public long[] permissionBits(AuthorizationModel model, VerifiedToken token) {
+        String encoded = token.getPermissionBits();
+        if (encoded == null) {
+            return model.getPermissions().encode(token.getPermissions());
+        }
+        PermissionDictionary dictionary = model.getPermissions();
+        String version = token.getPermissionDictionaryVersion();
+        if (dictionary.getVersion().equals(version)) {
+            return PermissionBits.fromBase64Url(encoded);
+        }
+        PermissionDictionary previous = previousDictionaries.getIfPresent(key(model.getOrganizationId()) + ":" + version);
+        if (previous != null) {
+            return dictionary.encode(previous.decode(PermissionBits.fromBase64Url(encoded)));
+        }
+        SubjectEntry entry = JwtTokenProvider.TYPE_CLIENT.equals(token.getSubjectType())
+                ? model.findClient(token.getSubject())
+                : model.findUser(token.getSubject());
+        return entry != null ? entry.getPermissionBits() : PermissionBits.EMPTY;
+    }
+
+    public Set<String> permissionNames(VerifiedToken token) {
+        AuthorizationModel model = current(token.getOrganizationId());
+        return token.getPermissionBits() == null
+                ? token.getPermissions()
+                : model.getPermissions().decode(permissionBits(model, token));
+    }
+
+    // Encodes permission names with the organization's current dictionary, e.g. for issuing tokens.
+    public long[] encodePermissions(Long organizationId, Collection<String> permissionNames) {
+        return current(organizationId).getPermissions().encode(permissionNames);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorizationChange(AuthorizationChangeEvent event) {
+        Set<AuthorizationModel.Part> parts = partsFor(event.getType());
+        if (event.getOrganizationId() == null) {
+            models.keySet().forEach(key -> rebuild(key, EnumSet.allOf(AuthorizationModel.Part.class)));
+            return;
+        }
+        rebuild(event.getOrganizationId(), parts);
+        // The organization-less model indexes every organization's resources.
+        if (parts.contains(AuthorizationModel.Part.RESOURCES)) {
+            rebuild(ALL_ORGANIZATIONS, parts);
+        }
+    }
+
+    private void rebuild(Long key, Set<AuthorizationModel.Part> parts) {
+        Long organizationId = ALL_ORGANIZATIONS.equals(key) ? null : key;
+        ReentrantLock lock = lock(key);
+        lock.lock();
+        try {
+            AuthorizationModel current = models.get(key);
+            if (current == null) {
+                return;
+            }
+            try {
+                AuthorizationModel rebuilt = loader.rebuild(current, organizationId, parts, versions.incrementAndGet());
+                keepPreviousDictionary(key, current, rebuilt);
+                models.replace(key, current, rebuilt);
+            } catch (RuntimeException e) {
+                // Drop the stale model; the next decision for this organization reloads it from scratch.
+                log.error("Failed to rebuild authorization model for organization {}: {}", organizationId, e.getMessage(), e);
+                if (models.remove(key, current)) {
+                    loadedAt.remove(key);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isExpired(Long key) {
+        Long loaded = loadedAt.get(key);
+        return loaded == null || System.nanoTime() - loaded >= maxAge.toNanos();
+    }
+
+    private void keepPreviousDictionary(Long key, AuthorizationModel previous, AuthorizationModel replacement) {
+        PermissionDictionary dictionary = previous.getPermissions();
+        if (!dictionary.getVersion().equals(replacement.getPermissions().getVersion())) {
+            previousDictionaries.put(key + ":" + dictionary.getVersion(), dictionary);
+        }
+    }
+
+    private ReentrantLock lock(Long key) {
+        return locks.computeIfAbsent(key, k -> new ReentrantLock());
+    }
+
+    private static Set<AuthorizationModel.Part> partsFor(AuthorizationChangeEvent.Type type) {
+        return switch (type) {
+            case RESOURCE -> EnumSet.of(AuthorizationModel.Part.RESOURCES);
+            case POLICY -> EnumSet.of(AuthorizationModel.Part.POLICIES);
+            case ROLE, USER, CLIENT, SCOPE -> EnumSet.of(AuthorizationModel.Part.SUBJECTS);
+        };
+    }
+
+    private static Long key(Long organizationId) {
+        return organizationId != null ? organizationId : ALL_ORGANIZATIONS;
+    }
+}
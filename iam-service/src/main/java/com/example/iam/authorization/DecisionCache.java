@@ -0,0 +1,163 @@
+package com.example.iam.authorization;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+// Bounded cache of authorization decisions keyed by (organization, model version, subject, path, method).
+// Every entry carries its own lifetime: the time until the next time/date boundary of any condition the
+// decision depended on, capped at max-ttl. Decisions that depend on an IP condition are stored under a
+// second key that includes the client address; the address-less key then only records that fact.
+// The model version makes entries of a replaced model unreachable; change events additionally evict
+// them so they do not occupy the cache until they expire. Revoked tokens never get this far, since
+// the token is validated before any decision is looked up.
+@Slf4j
+@Component
+public class DecisionCache {
+
+    private static final Entry CLIENT_IP_DEPENDENT = new Entry(false, Long.MAX_VALUE);
+
+    @Value("${app.authorization.decision-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.authorization.decision-cache.max-size:100000}")
+    private long maxSize;
+
+    @Value("${app.authorization.decision-cache.max-ttl:5m}")
+    private Duration maxTtl;
+
+    private Cache<Key, Entry> cache;
+
+    @PostConstruct
+    public void init() {
+        long maxTtlNanos = maxTtl.toNanos();
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Key, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                        return Math.min(entry.ttlNanos, maxTtlNanos);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return Math.min(entry.ttlNanos, maxTtlNanos);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    // Returns the cached decision, or null on a miss. The client address is only resolved when the
+    // decision for this key is known to depend on it.
+    public Boolean get(Key key, Supplier<String> clientIp) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(key);
+        if (entry == CLIENT_IP_DEPENDENT) {
+            entry = cache.getIfPresent(key.withClientIp(clientIp.get()));
+        }
+        return entry != null ? entry.allowed : null;
+    }
+
+    public void put(Key key, Supplier<String> clientIp, boolean allowed, Decision decision) {
+        if (!enabled || decision.ttlNanos <= 0) {
+            return;
+        }
+        if (decision.clientIpDependent) {
+            cache.put(key, CLIENT_IP_DEPENDENT);
+            key = key.withClientIp(clientIp.get());
+        }
+        cache.put(key, new Entry(allowed, decision.ttlNanos));
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorizationChange(AuthorizationChangeEvent event) {
+        Long organizationId = event.getOrganizationId();
+        if (organizationId == null) {
+            cache.invalidateAll();
+            return;
+        }
+        // Resource changes also reach the organization-less model, whose decisions are keyed by null.
+        boolean resources = event.getType() == AuthorizationChangeEvent.Type.RESOURCE;
+        cache.asMap().keySet().removeIf(key -> organizationId.equals(key.organizationId)
+                || (resources && key.organizationId == null));
+    }
+
+    @Getter
+    @ToString
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    public static final class Key {
+        private final Long organizationId;
+        private final long modelVersion;
+        private final String subjectType;
+        private final String subject;
+        // Issue time of the token in stateless mode, where roles and permissions come from its claims; 0 otherwise.
+        private final long issuedAt;
+        private final String path;
+        private final String method;
+        private final String clientIp;
+
+        public Key(Long organizationId, long modelVersion, String subjectType, String subject, long issuedAt,
+                   String path, String method) {
+            this(organizationId, modelVersion, subjectType, subject, issuedAt, path, method, null);
+        }
+
+        Key withClientIp(String clientIp) {
+            return new Key(organizationId, modelVersion, subjectType, subject, issuedAt, path, method,
+                    Objects.requireNonNullElse(clientIp, ""));
+        }
+    }
+
+    // What a decision depended on, collected while it was made.
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static final class Decision {
+        public static final Decision UNCONDITIONAL = new Decision(Long.MAX_VALUE, false);
+
+        private final long ttlNanos;
+        private final boolean clientIpDependent;
+
+        // nextChange is the earliest condition boundary after now, or null if none of the conditions reads the clock.
+        public static Decision of(LocalDateTime now, LocalDateTime nextChange, boolean clientIpDependent) {
+            if (nextChange == null) {
+                return clientIpDependent ? new Decision(Long.MAX_VALUE, true) : UNCONDITIONAL;
+            }
+            Duration ttl = Duration.between(now, nextChange);
+            // Durations beyond ~292 years do not fit in nanoseconds; they are capped by max-ttl anyway.
+            long ttlNanos = ttl.getSeconds() >= Long.MAX_VALUE / 1_000_000_000L ? Long.MAX_VALUE : ttl.toNanos();
+            return new Decision(ttlNanos, clientIpDependent);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+        private final boolean allowed;
+        private final long ttlNanos;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.iam.authorization;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Operations on permission sets stored as {@code long[]} bitsets, where bit {@code i} stands for the
+ * permission with dense id {@code i} in a {@link PermissionDictionary}. Arrays carry no trailing zero
+ * words, so an empty set is always the shared zero-length array.
+ */
+public final class PermissionBits {
+
+    public static final long[] EMPTY = new long[0];
+
+    private PermissionBits() {
+    }
+
+    public static boolean isEmpty(long[] bits) {
+        return bits.length == 0;
+    }
+
+    public static boolean contains(long[] bits, int id) {
+        int word = id >>> 6;
+        return id >= 0 && word < bits.length && (bits[word] & (1L << id)) != 0;
+    }
+
+    // True if the two sets share at least one permission.
+    public static boolean intersects(long[] a, long[] b) {
+        int words = Math.min(a.length, b.length);
+        for (int i = 0; i < words; i++) {
+            if ((a[i] & b[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static long[] union(long[] a, long[] b) {
+        if (a.length < b.length) {
+            long[] swap = a;
+            a = b;
+            b = swap;
+        }
+        if (b.length == 0) {
+            return a;
+        }
+        long[] result = a.clone();
+        for (int i = 0; i < b.length; i++) {
+            result[i] |= b[i];
+        }
+        return result;
+    }
+
+    static long[] of(int[] ids) {
+        int max = -1;
+        for (int id : ids) {
+            max = Math.max(max, id);
+        }
+        if (max < 0) {
+            return EMPTY;
+        }
+        long[] bits = new long[(max >>> 6) + 1];
+        for (int id : ids) {
+            if (id >= 0) {
+                bits[id >>> 6] |= 1L << id;
+            }
+        }
+        return bits;
+    }
+
+    public static int cardinality(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // Little-endian bytes of the words, trailing zero bytes dropped, base64url without padding; this is
+    // the form carried in the compact permissions claim of access tokens.
+    public static String toBase64Url(long[] bits) {
+        byte[] bytes = new byte[bits.length * 8];
+        int length = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (bits[i >>> 3] >>> ((i & 7) << 3));
+            if (bytes[i] != 0) {
+                length = i + 1;
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(length == bytes.length ? bytes : Arrays.copyOf(bytes, length));
+    }
+
+    public static long[] fromBase64Url(String encoded) {
+        byte[] bytes = Base64.getUrlDecoder().decode(encoded);
+        int length = bytes.length;
+        while (length > 0 && bytes[length - 1] == 0) {
+            length--;
+        }
+        if (length == 0) {
+            return EMPTY;
+        }
+        long[] bits = new long[(length + 7) >>> 3];
+        for (int i = 0; i < length; i++) {
+            bits[i >>> 3] |= (bytes[i] & 0xFFL) << ((i & 7) << 3);
+        }
+        return bits;
+    }
+}
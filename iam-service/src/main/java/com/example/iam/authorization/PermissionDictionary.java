@@ -0,0 +1,129 @@
+package com.example.iam.authorization;
+
+import com.example.iam.entity.Permission;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps the permission names used by one organization to dense int ids, ordered by permission
+ * primary key so the numbering only moves when permissions are added in between. Immutable.
+ * The version is a SHA-256 digest of the names in id order, so bitsets encoded elsewhere (for example
+ * in a token) are only ever decoded by the dictionary with exactly the same numbering.
+ */
+public final class PermissionDictionary {
+
+    private static final PermissionDictionary EMPTY = new PermissionDictionary(new String[0]);
+
+    private final String[] names;
+    private final Map<String, Integer> ids;
+    private final String version;
+
+    private PermissionDictionary(String[] names) {
+        this.names = names;
+        this.ids = new HashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            ids.put(names[i], i);
+        }
+        this.version = digest(names);
+    }
+
+    // Each name is length-prefixed so that no two different name lists produce the same input.
+    private static String digest(String[] names) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+            for (String name : names) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                sha256.update(length.clear().putInt(bytes.length).array());
+                sha256.update(bytes);
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(sha256.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static PermissionDictionary empty() {
+        return EMPTY;
+    }
+
+    public static PermissionDictionary build(Collection<Permission> permissions) {
+        Set<String> names = new LinkedHashSet<>();
+        permissions.stream()
+                .sorted(Comparator.comparing(Permission::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .forEach(permission -> names.add(permission.getName()));
+        return new PermissionDictionary(names.toArray(new String[0]));
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    // As carried in tokens and served by the dictionary endpoint.
+    public String getVersion() {
+        return version;
+    }
+
+    // Names in id order: the name of permission id i is at index i.
+    public List<String> getNames() {
+        return List.of(names);
+    }
+
+    // Returns -1 for names this organization does not use.
+    public int idOf(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : -1;
+    }
+
+    public String nameOf(int id) {
+        return names[id];
+    }
+
+    public boolean containsAll(Collection<Permission> permissions) {
+        for (Permission permission : permissions) {
+            if (!ids.containsKey(permission.getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Unknown names are dropped: they cannot match any resource of this organization.
+    public long[] encode(Collection<String> permissionNames) {
+        if (permissionNames == null || permissionNames.isEmpty()) {
+            return PermissionBits.EMPTY;
+        }
+        int[] encoded = new int[permissionNames.size()];
+        int i = 0;
+        for (String name : permissionNames) {
+            encoded[i++] = idOf(name);
+        }
+        return PermissionBits.of(encoded);
+    }
+
+    public Set<String> decode(long[] bits) {
+        Set<String> decoded = new LinkedHashSet<>();
+        for (int word = 0; word < bits.length; word++) {
+            long remaining = bits[word];
+            while (remaining != 0) {
+                int id = (word << 6) + Long.numberOfTrailingZeros(remaining);
+                if (id < names.length) {
+                    decoded.add(names[id]);
+                }
+                remaining &= remaining - 1;
+            }
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.iam.authorization;
+
+import com.example.iam.authorization.condition.PolicyCondition;
+import com.example.iam.entity.Policy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+// Detached, immutable view of a Policy row with its condition already compiled.
+@Getter
+@ToString(exclude = "condition")
+@RequiredArgsConstructor
+public final class PolicyEntry {
+
+    private final Long id;
+    private final Policy.SubjectType subjectType;
+    private final Long subjectId;
+    private final Long resourceId;
+    private final String action;
+    private final Policy.Effect effect;
+    private final PolicyCondition condition;
+}
@@ -0,0 +1,139 @@
+package com.example.iam.authorization;
+
+import com.example.iam.entity.Policy;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Policies indexed as subjectType -> subjectId -> resourceId -> action, with DENY and ALLOW policies
+ * split into separate arrays at build time. A decision only looks at the buckets of the matched
+ * resources and required actions, so policies that cannot apply are never touched. ROLE and SCOPE
+ * policies are indexed under the role or scope id and fanned in per subject with {@link #merge}.
+ * Immutable.
+ */
+public final class PolicyIndex {
+
+    private static final PolicyIndex EMPTY = new PolicyIndex(Collections.emptyMap(), 0);
+
+    private final Map<Policy.SubjectType, Map<Long, Map<Long, Map<String, Bucket>>>> index;
+    private final int size;
+
+    private PolicyIndex(Map<Policy.SubjectType, Map<Long, Map<Long, Map<String, Bucket>>>> index, int size) {
+        this.index = index;
+        this.size = size;
+    }
+
+    public static PolicyIndex empty() {
+        return EMPTY;
+    }
+
+    public static PolicyIndex build(Collection<PolicyEntry> policies) {
+        Map<Policy.SubjectType, Map<Long, Map<Long, Map<String, List<PolicyEntry>>>>> grouped =
+                new EnumMap<>(Policy.SubjectType.class);
+        int size = 0;
+        for (PolicyEntry policy : policies) {
+            if (policy.getSubjectType() == null || policy.getResourceId() == null || policy.getAction() == null) {
+                continue;
+            }
+            grouped.computeIfAbsent(policy.getSubjectType(), type -> new HashMap<>())
+                    .computeIfAbsent(policy.getSubjectId(), id -> new HashMap<>())
+                    .computeIfAbsent(policy.getResourceId(), id -> new HashMap<>(2))
+                    .computeIfAbsent(policy.getAction(), action -> new ArrayList<>(1))
+                    .add(policy);
+            size++;
+        }
+
+        Map<Policy.SubjectType, Map<Long, Map<Long, Map<String, Bucket>>>> index = new EnumMap<>(Policy.SubjectType.class);
+        grouped.forEach((type, bySubject) -> {
+            Map<Long, Map<Long, Map<String, Bucket>>> subjects = new HashMap<>(bySubject.size() * 2);
+            bySubject.forEach((subjectId, byResource) -> {
+                Map<Long, Map<String, Bucket>> resources = new HashMap<>(byResource.size() * 2);
+                byResource.forEach((resourceId, byAction) -> {
+                    Map<String, Bucket> actions = new HashMap<>(byAction.size() * 2);
+                    byAction.forEach((action, entries) -> actions.put(action, Bucket.of(entries)));
+                    resources.put(resourceId, Collections.unmodifiableMap(actions));
+                });
+                subjects.put(subjectId, Collections.unmodifiableMap(resources));
+            });
+            index.put(type, Collections.unmodifiableMap(subjects));
+        });
+        return new PolicyIndex(Collections.unmodifiableMap(index), size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // resourceId -> action -> bucket for one subject; empty when the subject has no policies.
+    public Map<Long, Map<String, Bucket>> forSubject(Policy.SubjectType subjectType, Long subjectId) {
+        Map<Long, Map<Long, Map<String, Bucket>>> bySubject = index.get(subjectType);
+        if (bySubject == null) {
+            return Collections.emptyMap();
+        }
+        return bySubject.getOrDefault(subjectId, Collections.emptyMap());
+    }
+
+    public Bucket find(Policy.SubjectType subjectType, Long subjectId, Long resourceId, String action) {
+        Map<String, Bucket> byAction = forSubject(subjectType, subjectId).get(resourceId);
+        return byAction != null ? byAction.get(action) : null;
+    }
+
+    // Combines several resourceId -> action -> bucket views into one, concatenating buckets that collide.
+    public static Map<Long, Map<String, Bucket>> merge(List<Map<Long, Map<String, Bucket>>> views) {
+        Map<Long, Map<String, Bucket>> merged = new HashMap<>();
+        for (Map<Long, Map<String, Bucket>> view : views) {
+            view.forEach((resourceId, byAction) -> {
+                Map<String, Bucket> actions = merged.computeIfAbsent(resourceId, id -> new HashMap<>(byAction.size() * 2));
+                byAction.forEach((action, bucket) -> actions.merge(action, bucket, Bucket::concat));
+            });
+        }
+        merged.replaceAll((resourceId, byAction) -> Collections.unmodifiableMap(byAction));
+        return Collections.unmodifiableMap(merged);
+    }
+
+    // Policies of one (subject, resource, action), ordered by id within each effect.
+    @Getter
+    public static final class Bucket {
+        private static final PolicyEntry[] NONE = new PolicyEntry[0];
+
+        private final PolicyEntry[] deny;
+        private final PolicyEntry[] allow;
+
+        private Bucket(PolicyEntry[] deny, PolicyEntry[] allow) {
+            this.deny = deny;
+            this.allow = allow;
+        }
+
+        static Bucket concat(Bucket first, Bucket second) {
+            return new Bucket(concat(first.deny, second.deny), concat(first.allow, second.allow));
+        }
+
+        private static PolicyEntry[] concat(PolicyEntry[] first, PolicyEntry[] second) {
+            if (second.length == 0) {
+                return first;
+            }
+            if (first.length == 0) {
+                return second;
+            }
+            PolicyEntry[] result = Arrays.copyOf(first, first.length + second.length);
+            System.arraycopy(second, 0, result, first.length, second.length);
+            return result;
+        }
+
+        static Bucket of(List<PolicyEntry> entries) {
+            entries.sort(Comparator.comparing(PolicyEntry::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+            PolicyEntry[] deny = entries.stream().filter(p -> p.getEffect() == Policy.Effect.DENY).toArray(PolicyEntry[]::new);
+            PolicyEntry[] allow = entries.stream().filter(p -> p.getEffect() == Policy.Effect.ALLOW).toArray(PolicyEntry[]::new);
+            return new Bucket(deny.length > 0 ? deny : NONE, allow.length > 0 ? allow : NONE);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.iam.authorization;
+
+import com.example.iam.entity.Permission;
+import com.example.iam.entity.Resource;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Detached, immutable view of a Resource row as needed by the decision engine.
+@Getter
+@ToString
+@EqualsAndHashCode(of = "id")
+@RequiredArgsConstructor
+public final class ResourceEntry {
+
+    private final Long id;
+    private final String name;
+    private final String path;
+    private final Resource.HttpMethod method;
+    private final Set<String> permissions;
+    @ToString.Exclude
+    private final long[] permissionBits;
+
+    public static ResourceEntry from(Resource resource, PermissionDictionary dictionary) {
+        Set<String> permissions = resource.getPermissions().stream()
+                .map(Permission::getName)
+                .collect(Collectors.toUnmodifiableSet());
+        return new ResourceEntry(resource.getId(), resource.getName(), resource.getPath(), resource.getMethod(),
+                permissions, dictionary.encode(permissions));
+    }
+
+    public static boolean requiresPermission(List<ResourceEntry> resources) {
+        for (ResourceEntry resource : resources) {
+            if (!PermissionBits.isEmpty(resource.permissionBits)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Passes when no resource requires a permission, or the granted set holds any permission one of them
+    // requires. Same rule as a disjoint check against the union of required permissions, without building it.
+    public static boolean grantsAnyRequired(List<ResourceEntry> resources, long[] granted) {
+        boolean anyRequired = false;
+        for (ResourceEntry resource : resources) {
+            if (PermissionBits.isEmpty(resource.permissionBits)) {
+                continue;
+            }
+            if (PermissionBits.intersects(resource.permissionBits, granted)) {
+                return true;
+            }
+            anyRequired = true;
+        }
+        return !anyRequired;
+    }
+}
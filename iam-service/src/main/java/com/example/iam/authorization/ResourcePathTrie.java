@@ -0,0 +1,183 @@
+package com.example.iam.authorization;
+
+import com.example.iam.entity.Resource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Segment trie over resource path templates such as {@code /api/users/{id}}.
+ * A segment is either a literal, a whole-segment {@code {param}} wildcard, or a mixed
+ * template like {@code {name}.json} that is compiled to a pattern once at build time.
+ * Instances are immutable once built and safe to share between threads.
+ */
+public final class ResourcePathTrie {
+
+    private static final ResourcePathTrie EMPTY = new ResourcePathTrie(new Node(), 0);
+
+    private final Node root;
+    private final int size;
+
+    private ResourcePathTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static ResourcePathTrie empty() {
+        return EMPTY;
+    }
+
+    public static ResourcePathTrie build(Collection<ResourceEntry> resources) {
+        Node root = new Node();
+        int size = 0;
+        for (ResourceEntry resource : resources) {
+            if (resource.getPath() == null || resource.getMethod() == null) {
+                continue;
+            }
+            root.insert(resource);
+            size++;
+        }
+        return new ResourcePathTrie(root, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public List<ResourceEntry> match(String path, String method) {
+        if (path == null || method == null) {
+            return Collections.emptyList();
+        }
+        Resource.HttpMethod httpMethod;
+        try {
+            httpMethod = Resource.HttpMethod.valueOf(method.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Collections.emptyList();
+        }
+        return match(path, httpMethod);
+    }
+
+    public List<ResourceEntry> match(String path, Resource.HttpMethod method) {
+        if (path == null || method == null || size == 0) {
+            return Collections.emptyList();
+        }
+        List<ResourceEntry> matches = new ArrayList<>(2);
+        root.collect(path, 0, method, matches);
+        return matches;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private final List<PatternChild> patterns = new ArrayList<>(0);
+        private Node wildcard;
+        private EnumMap<Resource.HttpMethod, List<ResourceEntry>> resources;
+
+        void insert(ResourceEntry resource) {
+            String path = resource.getPath();
+            Node node = this;
+            int from = 0;
+            while (from <= path.length()) {
+                int end = segmentEnd(path, from);
+                node = node.child(path.substring(from, end));
+                from = end + 1;
+            }
+            if (node.resources == null) {
+                node.resources = new EnumMap<>(Resource.HttpMethod.class);
+            }
+            node.resources.computeIfAbsent(resource.getMethod(), m -> new ArrayList<>(1)).add(resource);
+        }
+
+        // Request paths are split exactly like templates, so "/a/b" and "/a/b/" stay distinct.
+        void collect(String path, int from, Resource.HttpMethod method, List<ResourceEntry> out) {
+            if (from > path.length()) {
+                if (resources != null) {
+                    List<ResourceEntry> entries = resources.get(method);
+                    if (entries != null) {
+                        out.addAll(entries);
+                    }
+                }
+                return;
+            }
+            int end = segmentEnd(path, from);
+            String segment = path.substring(from, end);
+
+            Node literal = literals.get(segment);
+            if (literal != null) {
+                literal.collect(path, end + 1, method, out);
+            }
+            if (segment.isEmpty()) {
+                return; // {param} never matches an empty segment
+            }
+            if (wildcard != null) {
+                wildcard.collect(path, end + 1, method, out);
+            }
+            for (PatternChild child : patterns) {
+                if (child.pattern.matcher(segment).matches()) {
+                    child.node.collect(path, end + 1, method, out);
+                }
+            }
+        }
+
+        private Node child(String segment) {
+            int open = segment.indexOf('{');
+            if (open < 0 || segment.indexOf('}', open) < 0) {
+                return literals.computeIfAbsent(segment, s -> new Node());
+            }
+            if (open == 0 && segment.indexOf('}') == segment.length() - 1) {
+                if (wildcard == null) {
+                    wildcard = new Node();
+                }
+                return wildcard;
+            }
+            String regex = toRegex(segment);
+            for (PatternChild child : patterns) {
+                if (child.pattern.pattern().equals(regex)) {
+                    return child.node;
+                }
+            }
+            PatternChild child = new PatternChild(Pattern.compile(regex), new Node());
+            patterns.add(child);
+            return child.node;
+        }
+
+        private static int segmentEnd(String path, int from) {
+            int end = path.indexOf('/', from);
+            return end < 0 ? path.length() : end;
+        }
+
+        private static String toRegex(String segment) {
+            StringBuilder regex = new StringBuilder();
+            int from = 0;
+            while (from < segment.length()) {
+                int open = segment.indexOf('{', from);
+                int close = open < 0 ? -1 : segment.indexOf('}', open);
+                if (open < 0 || close < 0) {
+                    regex.append(Pattern.quote(segment.substring(from)));
+                    break;
+                }
+                if (open > from) {
+                    regex.append(Pattern.quote(segment.substring(from, open)));
+                }
+                regex.append("[^/]+");
+                from = close + 1;
+            }
+            return regex.toString();
+        }
+    }
+
+    private static final class PatternChild {
+        private final Pattern pattern;
+        private final Node node;
+
+        private PatternChild(Pattern pattern, Node node) {
+            this.pattern = pattern;
+            this.node = node;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.iam.authorization;
+
+import com.example.iam.entity.Policy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.Set;
+
+// Detached, immutable view of a user or client application as needed by the decision engine.
+// For users, permissionBits is the union of the permission bitsets of all assigned roles.
+// roleIds and scopeIds are sorted; they select the ROLE and SCOPE policies the subject inherits.
+@Getter
+@ToString
+@RequiredArgsConstructor
+public final class SubjectEntry {
+
+    private final Long id;
+    private final String name;
+    private final Policy.SubjectType type;
+    private final Set<String> roles;
+    @ToString.Exclude
+    private final long[] roleIds;
+    @ToString.Exclude
+    private final long[] scopeIds;
+    @ToString.Exclude
+    private final long[] permissionBits;
+}
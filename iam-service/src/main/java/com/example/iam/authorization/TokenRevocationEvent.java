@@ -0,0 +1,22 @@
+package com.example.iam.authorization;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+// Published by TokenService after tokens of a user or client application have been revoked.
+// A null organizationId matches the subject in every organization; a null token means all of the subject's tokens.
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class TokenRevocationEvent {
+
+    private final Long organizationId;
+    private final String subject;
+    @ToString.Exclude
+    private final String token;
+
+    public TokenRevocationEvent(Long organizationId, String subject) {
+        this(organizationId, subject, null);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.iam.authorization.condition;
+
+import java.time.LocalDateTime;
+
+final class AllOfCondition implements PolicyCondition {
+
+    private final PolicyCondition[] conditions;
+
+    AllOfCondition(PolicyCondition[] conditions) {
+        this.conditions = conditions;
+    }
+
+    @Override
+    public boolean test(ConditionContext context) {
+        for (PolicyCondition condition : conditions) {
+            if (!condition.test(context)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public LocalDateTime nextChange(ConditionContext context) {
+        LocalDateTime next = null;
+        for (PolicyCondition condition : conditions) {
+            next = PolicyCondition.earliest(next, condition.nextChange(context));
+        }
+        return next;
+    }
+
+    @Override
+    public boolean dependsOnClientIp() {
+        for (PolicyCondition condition : conditions) {
+            if (condition.dependsOnClientIp()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.iam.authorization.condition;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.Set;
+
+// Per-decision inputs for condition evaluation. The clock and client address are resolved once
+// when the context is created instead of once per condition.
+@Getter
+public final class ConditionContext {
+
+    static final long INVALID_IP = -1L;
+
+    private final Long organizationId;
+    private final Set<String> roles;
+    private final String clientIp;
+    private final long clientIpValue;
+    private final LocalTime time;
+    private final LocalDate date;
+    private final LocalDateTime dateTime;
+
+    public ConditionContext(Long organizationId, Set<String> roles, String clientIp, LocalDateTime now) {
+        this.organizationId = organizationId;
+        this.roles = roles != null ? roles : Collections.emptySet();
+        this.clientIp = clientIp;
+        this.clientIpValue = parseIpv4(clientIp);
+        this.time = now.toLocalTime();
+        this.date = now.toLocalDate();
+        this.dateTime = now;
+    }
+
+    public static ConditionContext of(Long organizationId, Set<String> roles, String clientIp) {
+        return new ConditionContext(organizationId, roles, clientIp, LocalDateTime.now());
+    }
+
+    // Returns the address as an unsigned 32-bit value, or INVALID_IP for anything that is not a dotted quad.
+    static long parseIpv4(String ip) {
+        if (ip == null) {
+            return INVALID_IP;
+        }
+        long result = 0;
+        int octets = 0;
+        int value = -1;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+                if (value > 255) {
+                    return INVALID_IP;
+                }
+            } else if (c == '.' && value >= 0 && octets < 3) {
+                result = (result << 8) | value;
+                octets++;
+                value = -1;
+            } else {
+                return INVALID_IP;
+            }
+        }
+        if (value < 0 || octets != 3) {
+            return INVALID_IP;
+        }
+        return (result << 8) | value;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.iam.authorization.condition;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+final class DateCondition implements PolicyCondition {
+
+    enum Operator { BETWEEN, BEFORE, AFTER }
+
+    private final Operator operator;
+    private final LocalDate start;
+    private final LocalDate end;
+
+    DateCondition(Operator operator, LocalDate start, LocalDate end) {
+        this.operator = operator;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public boolean test(ConditionContext context) {
+        LocalDate today = context.getDate();
+        return switch (operator) {
+            case BETWEEN -> today.isAfter(start) && today.isBefore(end);
+            case BEFORE -> today.isBefore(end);
+            case AFTER -> today.isAfter(start);
+        };
+    }
+
+    // The result flips on the day after start and on end; once both are past it never changes again.
+    @Override
+    public LocalDateTime nextChange(ConditionContext context) {
+        LocalDateTime now = context.getDateTime();
+        LocalDateTime next = null;
+        if (operator != Operator.BEFORE) {
+            next = PolicyCondition.earliest(next, notBefore(now, start.plusDays(1).atStartOfDay()));
+        }
+        if (operator != Operator.AFTER) {
+            next = PolicyCondition.earliest(next, notBefore(now, end.atStartOfDay()));
+        }
+        return next;
+    }
+
+    private static LocalDateTime notBefore(LocalDateTime now, LocalDateTime boundary) {
+        return boundary.isBefore(now) ? null : boundary;
+    }
+}
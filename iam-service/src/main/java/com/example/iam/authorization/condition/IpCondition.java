@@ -0,0 +1,35 @@
+package com.example.iam.authorization.condition;
+
+// CIDR blocks are stored as (network, mask) pairs of unsigned 32-bit values.
+final class IpCondition implements PolicyCondition {
+
+    private final long[] networks;
+    private final long[] masks;
+    private final boolean negated;
+
+    IpCondition(long[] networks, long[] masks, boolean negated) {
+        this.networks = networks;
+        this.masks = masks;
+        this.negated = negated;
+    }
+
+    @Override
+    public boolean test(ConditionContext context) {
+        long ip = context.getClientIpValue();
+        boolean inRange = false;
+        if (ip != ConditionContext.INVALID_IP) {
+            for (int i = 0; i < networks.length; i++) {
+                if ((ip & masks[i]) == networks[i]) {
+                    inRange = true;
+                    break;
+                }
+            }
+        }
+        return negated != inRange;
+    }
+
+    @Override
+    public boolean dependsOnClientIp() {
+        return true;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.iam.authorization.condition;
+
+import java.util.Arrays;
+
+final class OrganizationCondition implements PolicyCondition {
+
+    // Sorted for binary search.
+    private final long[] organizationIds;
+
+    OrganizationCondition(long[] organizationIds) {
+        this.organizationIds = organizationIds;
+        Arrays.sort(this.organizationIds);
+    }
+
+    @Override
+    public boolean test(ConditionContext context) {
+        Long organizationId = context.getOrganizationId();
+        return organizationId != null && Arrays.binarySearch(organizationIds, organizationId) >= 0;
+    }
+}
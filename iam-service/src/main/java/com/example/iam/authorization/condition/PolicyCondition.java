@@ -0,0 +1,31 @@
+package com.example.iam.authorization.condition;
+
+import java.time.LocalDateTime;
+
+// Immutable, pre-compiled form of Policy.conditionJson. Implementations hold only parsed literals,
+// so evaluating a condition never touches JSON and allocates nothing.
+public interface PolicyCondition {
+
+    PolicyCondition ALWAYS = context -> true;
+    PolicyCondition NEVER = context -> false;
+
+    boolean test(ConditionContext context);
+
+    // Earliest instant, not before the context's clock, at which test may return a different result
+    // for the same subject and client address; null if the result does not depend on the clock.
+    default LocalDateTime nextChange(ConditionContext context) {
+        return null;
+    }
+
+    // Whether test reads the client address, so a cached result is only valid for that address.
+    default boolean dependsOnClientIp() {
+        return false;
+    }
+
+    static LocalDateTime earliest(LocalDateTime first, LocalDateTime second) {
+        if (first == null) {
+            return second;
+        }
+        return second == null || first.isBefore(second) ? first : second;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.iam.authorization.condition;
+
+import com.example.iam.entity.Policy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Compiled conditions keyed by policy id. The policy's updatedAt timestamp acts as its version,
+// so an entry compiled before the last update is replaced on first use.
+@Component
+@RequiredArgsConstructor
+public class PolicyConditionCache {
+
+    private final PolicyConditionCompiler compiler;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public PolicyCondition get(Policy policy) {
+        if (policy.getId() == null) {
+            return compiler.compile(policy.getConditionJson());
+        }
+        Entry entry = entries.get(policy.getId());
+        if (entry != null && Objects.equals(entry.version, policy.getUpdatedAt())) {
+            return entry.condition;
+        }
+        return put(policy, compiler.compile(policy.getConditionJson()));
+    }
+
+    public PolicyCondition put(Policy policy, PolicyCondition condition) {
+        if (policy.getId() != null) {
+            entries.put(policy.getId(), new Entry(policy.getUpdatedAt(), condition));
+        }
+        return condition;
+    }
+
+    public void evict(Long policyId) {
+        entries.remove(policyId);
+    }
+
+    private static final class Entry {
+        private final LocalDateTime version;
+        private final PolicyCondition condition;
+
+        private Entry(LocalDateTime version, PolicyCondition condition) {
+            this.version = version;
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.iam.authorization.condition;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Turns Policy.conditionJson into a PolicyCondition tree. Supported shapes are a single
+// {"type", "operator", "value"} object or an array of them that must all hold.
+@Slf4j
+@Component
+public class PolicyConditionCompiler {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Used on the decision path: anything that cannot be compiled evaluates to false, as before.
+    public PolicyCondition compile(String conditionJson) {
+        try {
+            return compile(conditionJson, false);
+        } catch (Exception e) {
+            log.error("Error compiling conditions {}: {}", conditionJson, e.getMessage());
+            return PolicyCondition.NEVER;
+        }
+    }
+
+    // Used when policies are written: rejects malformed JSON, unknown types/operators and bad literals.
+    public PolicyCondition validate(String conditionJson) {
+        try {
+            return compile(conditionJson, true);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid condition JSON format", e);
+        }
+    }
+
+    private PolicyCondition compile(String conditionJson, boolean strict) throws Exception {
+        if (!StringUtils.hasText(conditionJson)) {
+            return PolicyCondition.ALWAYS; // No conditions means the policy applies
+        }
+        JsonNode conditions = objectMapper.readTree(conditionJson);
+        if (conditions.isObject()) {
+            return compileObject(conditions, strict);
+        }
+        if (conditions.isArray()) {
+            List<PolicyCondition> compiled = new ArrayList<>(conditions.size());
+            for (JsonNode condition : conditions) {
+                compiled.add(compileObject(condition, strict));
+            }
+            if (compiled.isEmpty()) {
+                return PolicyCondition.ALWAYS;
+            }
+            return compiled.size() == 1 ? compiled.get(0) : new AllOfCondition(compiled.toArray(new PolicyCondition[0]));
+        }
+        throw new IllegalArgumentException("Unknown condition format");
+    }
+
+    private PolicyCondition compileObject(JsonNode condition, boolean strict) {
+        String type = condition.path("type").asText();
+        String operator = condition.path("operator").asText();
+        JsonNode value = condition.path("value");
+
+        return switch (type) {
+            case "time" -> compileTime(operator, value);
+            case "date" -> compileDate(operator, value);
+            case "ip" -> compileIp(operator, value, strict);
+            case "role" -> compileRole(operator, value);
+            case "organization" -> compileOrganization(operator, value);
+            default -> throw new IllegalArgumentException("Unknown condition type: " + type);
+        };
+    }
+
+    private PolicyCondition compileTime(String operator, JsonNode value) {
+        return switch (operator) {
+            case "between" -> new TimeCondition(TimeCondition.Operator.BETWEEN,
+                    LocalTime.parse(value.path("start").asText()), LocalTime.parse(value.path("end").asText()));
+            case "before" -> new TimeCondition(TimeCondition.Operator.BEFORE, null, LocalTime.parse(value.asText()));
+            case "after" -> new TimeCondition(TimeCondition.Operator.AFTER, LocalTime.parse(value.asText()), null);
+            default -> throw new IllegalArgumentException("Unknown time operator: " + operator);
+        };
+    }
+
+    private PolicyCondition compileDate(String operator, JsonNode value) {
+        return switch (operator) {
+            case "between" -> new DateCondition(DateCondition.Operator.BETWEEN,
+                    LocalDate.parse(value.path("start").asText()), LocalDate.parse(value.path("end").asText()));
+            case "before" -> new DateCondition(DateCondition.Operator.BEFORE, null, LocalDate.parse(value.asText()));
+            case "after" -> new DateCondition(DateCondition.Operator.AFTER, LocalDate.parse(value.asText()), null);
+            default -> throw new IllegalArgumentException("Unknown date operator: " + operator);
+        };
+    }
+
+    private PolicyCondition compileIp(String operator, JsonNode value, boolean strict) {
+        boolean negated = switch (operator) {
+            case "in" -> false;
+            case "not_in" -> true;
+            default -> throw new IllegalArgumentException("Unknown IP operator: " + operator);
+        };
+        List<long[]> blocks = new ArrayList<>();
+        for (JsonNode cidr : value) {
+            long[] block = parseCidr(cidr.asText());
+            if (block != null) {
+                blocks.add(block);
+            } else if (strict) {
+                throw new IllegalArgumentException("Invalid CIDR: " + cidr.asText());
+            } else {
+                log.warn("Ignoring invalid CIDR {} in IP condition", cidr.asText());
+            }
+        }
+        long[] networks = new long[blocks.size()];
+        long[] masks = new long[blocks.size()];
+        for (int i = 0; i < blocks.size(); i++) {
+            networks[i] = blocks.get(i)[0];
+            masks[i] = blocks.get(i)[1];
+        }
+        return new IpCondition(networks, masks, negated);
+    }
+
+    private PolicyCondition compileRole(String operator, JsonNode value) {
+        boolean requireAll = switch (operator) {
+            case "has", "has_any" -> false;
+            case "has_all" -> true;
+            default -> throw new IllegalArgumentException("Unknown role operator: " + operator);
+        };
+        // Only arrays list roles. A scalar value lists none, as it always has: "has" then denies and "has_all" allows.
+        List<String> roles = new ArrayList<>();
+        if (value.isArray()) {
+            value.forEach(role -> roles.add(role.asText()));
+        }
+        return new RoleCondition(roles.toArray(new String[0]), requireAll);
+    }
+
+    private PolicyCondition compileOrganization(String operator, JsonNode value) {
+        return switch (operator) {
+            case "is" -> new OrganizationCondition(new long[]{value.asLong()});
+            case "in" -> {
+                long[] ids = new long[value.size()];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = value.get(i).asLong();
+                }
+                yield new OrganizationCondition(ids);
+            }
+            default -> throw new IllegalArgumentException("Unknown organization operator: " + operator);
+        };
+    }
+
+    // Returns {network, mask} or null when the block is not a valid IPv4 CIDR. A bare address is a /32.
+    private long[] parseCidr(String cidr) {
+        int slash = cidr.indexOf('/');
+        long address = ConditionContext.parseIpv4(slash < 0 ? cidr : cidr.substring(0, slash));
+        int prefix = 32;
+        if (slash >= 0) {
+            try {
+                prefix = Integer.parseInt(cidr.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        if (address == ConditionContext.INVALID_IP || prefix < 0 || prefix > 32) {
+            return null;
+        }
+        long mask = prefix == 0 ? 0L : (0xFFFFFFFFL << (32 - prefix)) & 0xFFFFFFFFL;
+        return new long[]{address & mask, mask};
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.iam.authorization.condition;
+
+import java.util.Set;
+
+final class RoleCondition implements PolicyCondition {
+
+    private final String[] roles;
+    private final boolean requireAll;
+
+    RoleCondition(String[] roles, boolean requireAll) {
+        this.roles = roles;
+        this.requireAll = requireAll;
+    }
+
+    @Override
+    public boolean test(ConditionContext context) {
+        Set<String> subjectRoles = context.getRoles();
+        for (String role : roles) {
+            boolean present = subjectRoles.contains(role);
+            if (requireAll && !present) {
+                return false;
+            }
+            if (!requireAll && present) {
+                return true;
+            }
+        }
+        return requireAll;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.iam.authorization.condition;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+final class TimeCondition implements PolicyCondition {
+
+    enum Operator { BETWEEN, BEFORE, AFTER }
+
+    private final Operator operator;
+    private final LocalTime start;
+    private final LocalTime end;
+
+    TimeCondition(Operator operator, LocalTime start, LocalTime end) {
+        this.operator = operator;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public boolean test(ConditionContext context) {
+        LocalTime now = context.getTime();
+        return switch (operator) {
+            case BETWEEN -> now.isAfter(start) && now.isBefore(end);
+            case BEFORE -> now.isBefore(end);
+            case AFTER -> now.isAfter(start);
+        };
+    }
+
+    // The result can flip at start, at end and when the clock wraps at midnight.
+    @Override
+    public LocalDateTime nextChange(ConditionContext context) {
+        LocalDateTime now = context.getDateTime();
+        LocalDateTime next = now.toLocalDate().plusDays(1).atStartOfDay();
+        if (operator != Operator.BEFORE) {
+            next = PolicyCondition.earliest(next, nextOccurrence(now, start));
+        }
+        if (operator != Operator.AFTER) {
+            next = PolicyCondition.earliest(next, nextOccurrence(now, end));
+        }
+        return next;
+    }
+
+    private static LocalDateTime nextOccurrence(LocalDateTime now, LocalTime time) {
+        LocalDateTime today = now.toLocalDate().atTime(time);
+        return today.isBefore(now) ? today.plusDays(1) : today;
+    }
+}
@@ -1,7 +1,5 @@
 package com.example.iam.config;
 
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
 import org.springframework.context.annotation.Bean;
@@ -21,7 +19,19 @@ import org.springframework.security.oauth2.server.authorization.settings.Authori
 import org.springframework.security.oauth2.server.authorization.settings.ClientSettings;
 import org.springframework.security.web.SecurityFilterChain;
 import com.example.iam.security.SessionSavingAuthenticationEntryPoint;
-import com.example.iam.security.JwtTokenProvider;
+import com.example.iam.security.SigningKeyRing;
+import com.example.iam.security.TokenIntrospectionAuthenticationProvider;
+import com.example.iam.service.TokenIntrospectionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenIntrospection;
+import org.springframework.security.oauth2.server.authorization.authentication.OAuth2TokenIntrospectionAuthenticationToken;
+import org.springframework.security.oauth2.server.authorization.http.converter.OAuth2TokenIntrospectionHttpMessageConverter;
 import com.example.iam.service.JpaRegisteredClientRepository;
 import com.example.iam.security.OrganizationContextFilter;
 import com.example.iam.security.OrganizationContextClearFilter;
@@ -30,6 +40,12 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.security.web.context.SecurityContextHolderFilter;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Set;
+
 @Configuration
 @RequiredArgsConstructor
 public class AuthorizationServerConfig {
@@ -37,11 +53,17 @@ public class AuthorizationServerConfig {
     private final RegisteredClientRepository registeredClientRepository;
     private final OrganizationContextFilter organizationContextFilter;
     private final OrganizationContextClearFilter organizationContextClearFilter;
+    private final TokenIntrospectionService introspectionService;
+    private final HttpMessageConverter<OAuth2TokenIntrospection> introspectionConverter =
+            new OAuth2TokenIntrospectionHttpMessageConverter();
 
     @Bean
     @Order(Ordered.HIGHEST_PRECEDENCE)
     public SecurityFilterChain authorizationServerSecurityFilterChain(HttpSecurity http) throws Exception {
         OAuth2AuthorizationServerConfigurer authorizationServerConfigurer = new OAuth2AuthorizationServerConfigurer();
+        authorizationServerConfigurer.tokenIntrospectionEndpoint(introspection -> introspection
+            .authenticationProviders(providers -> providers.add(0, new TokenIntrospectionAuthenticationProvider(introspectionService)))
+            .introspectionResponseHandler(this::writeIntrospectionResponse));
         RequestMatcher endpointsMatcher = authorizationServerConfigurer.getEndpointsMatcher();
 
         http
@@ -67,10 +89,24 @@ public class AuthorizationServerConfig {
         return http.build();
     }
 
+    // Same body as the default handler, plus a Cache-Control hint that never outlives the token.
+    private void writeIntrospectionResponse(HttpServletRequest request, HttpServletResponse response,
+                                            Authentication authentication) throws IOException {
+        OAuth2TokenIntrospection claims = ((OAuth2TokenIntrospectionAuthenticationToken) authentication).getTokenClaims();
+        Instant expiresAt = claims.isActive() ? claims.getExpiresAt() : null;
+        Duration maxAge = introspectionService.cacheDuration(
+                Collections.singletonList(expiresAt != null ? expiresAt.getEpochSecond() : null));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.maxAge(maxAge).cachePrivate().getHeaderValue());
+        introspectionConverter.write(claims, null, new ServletServerHttpResponse(response));
+    }
+
     @Bean
-    public JWKSource<SecurityContext> jwkSource(JwtTokenProvider jwtTokenProvider) {
-        JWKSet jwkSet = jwtTokenProvider.getJwkSet();
-        return (jwkSelector, securityContext) -> jwkSelector.select(jwkSet);
+    public JWKSource<SecurityContext> jwkSource(SigningKeyRing keyRing) {
+        return (jwkSelector, securityContext) -> {
+            // Selectors without a kid come from the encoder, which must see one active key per algorithm.
+            Set<String> keyIds = jwkSelector.getMatcher().getKeyIDs();
+            return jwkSelector.select(keyIds == null || keyIds.isEmpty() ? keyRing.getSigningJwkSet() : keyRing.getJwkSet());
+        };
     }
 
     @Bean
@@ -0,0 +1,104 @@
+package com.example.iam.config;
+
+import com.example.iam.entity.Organization;
+import com.example.iam.entity.Permission;
+import com.example.iam.entity.Resource;
+import com.example.iam.entity.Role;
+import com.example.iam.entity.Scope;
+import com.example.iam.entity.ServiceRegistry;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+// Second-level and query cache for reference data that is read on nearly every request but rarely written.
+// Backed by Caffeine through JCache. Every region is created here with its own size bound, and Hibernate
+// refuses regions that are not, so nothing ends up in an unbounded cache. Hit and miss counts per region
+// are published as hibernate.second.level.cache.* and hibernate.cache.query.* meters.
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.cache.hibernate.enabled", havingValue = "true", matchIfMissing = true)
+public class HibernateCacheConfig {
+
+    // Hibernate's default region names for the @Cache-annotated entities and collections.
+    static final List<String> ENTITY_REGIONS = List.of(
+            Organization.class.getName(),
+            Permission.class.getName(),
+            Role.class.getName(),
+            Scope.class.getName(),
+            Resource.class.getName(),
+            ServiceRegistry.class.getName());
+    static final List<String> COLLECTION_REGIONS = List.of(
+            Role.class.getName() + ".permissions",
+            Scope.class.getName() + ".permissions",
+            Resource.class.getName() + ".permissions");
+
+    @Value("${app.cache.hibernate.entity-max-size:10000}")
+    private long entityMaxSize;
+
+    @Value("${app.cache.hibernate.collection-max-size:10000}")
+    private long collectionMaxSize;
+
+    @Value("${app.cache.hibernate.query-max-size:5000}")
+    private long queryMaxSize;
+
+    // Bounds staleness when another node changes reference data; writes on this node invalidate immediately.
+    @Value("${app.cache.hibernate.ttl:PT10M}")
+    private Duration ttl;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        ENTITY_REGIONS.forEach(region -> createCache(cacheManager, region, entityMaxSize, ttl));
+        COLLECTION_REGIONS.forEach(region -> createCache(cacheManager, region, collectionMaxSize, ttl));
+        createCache(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, queryMaxSize, ttl);
+        // One entry per table; evicting or expiring one would let stale query results through.
+        createCache(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, 0, null);
+        log.info("Hibernate second-level cache: {} entity and {} collection regions, ttl {}",
+                ENTITY_REGIONS.size(), COLLECTION_REGIONS.size(), ttl);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    // maxSize 0 and a null ttl leave the region unbounded.
+    private static void createCache(CacheManager cacheManager, String region, long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maxSize > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        if (cacheManager.getCache(region) != null) {
+            cacheManager.destroyCache(region);
+        }
+        cacheManager.createCache(region, configuration);
+    }
+}
@@ -23,7 +23,7 @@ import java.util.Arrays;
 import org.springframework.http.HttpMethod;
 import com.example.iam.security.JwtAuthenticationFilter;
 import com.example.iam.security.JwtTokenProvider;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import com.example.iam.security.PrincipalCache;
 
 @Configuration
 @EnableWebSecurity
@@ -35,14 +35,14 @@ public class SecurityConfig {
     private final OrganizationContextFilter organizationContextFilter;
     private final OrganizationContextClearFilter organizationContextClearFilter;
     private final JwtTokenProvider tokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(tokenProvider, userDetailsService);
+        return new JwtAuthenticationFilter(tokenProvider, principalCache);
     }
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
@@ -0,0 +1,48 @@
+package com.example.iam.config;
+
+import com.example.iam.service.DeletingTokenPartitionManager;
+import com.example.iam.service.PostgresTokenPartitionManager;
+import com.example.iam.service.TokenPartitionManager;
+import com.example.iam.service.TokenService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+// Picks native range partitioning on PostgreSQL and the deleting fallback everywhere else (H2).
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.tokens.partitioning.enabled", havingValue = "true")
+public class TokenPartitioningConfig {
+
+    @Value("${app.tokens.partitioning.precreate-days:10}")
+    private int precreateDays;
+
+    @Value("${app.tokens.partitioning.retention-days:1}")
+    private int retentionDays;
+
+    @Value("${app.tokens.partitioning.batch-size:1000}")
+    private int batchSize;
+
+    @Bean
+    public TokenPartitionManager tokenPartitionManager(DataSource dataSource, JdbcTemplate jdbcTemplate,
+                                                       PlatformTransactionManager transactionManager, TokenService tokenService)
+            throws MetaDataAccessException {
+        String database = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if ("PostgreSQL".equals(database)) {
+            return new PostgresTokenPartitionManager(jdbcTemplate, new TransactionTemplate(transactionManager),
+                    precreateDays, retentionDays);
+        }
+        log.info("{} has no declarative partitioning; expired tokens are deleted in batches instead", database);
+        return new DeletingTokenPartitionManager(tokenService, retentionDays, batchSize);
+    }
+}
@@ -57,8 +57,9 @@ public class AuthController {
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         
-        String accessToken = jwtTokenProvider.generateAccessToken(authentication, organizationId);
-        String refreshToken = jwtTokenProvider.generateRefreshToken(authentication, organizationId);
+        String familyId = JwtTokenProvider.newFamilyId();
+        String accessToken = jwtTokenProvider.generateAccessToken(authentication, organizationId, familyId);
+        String refreshToken = jwtTokenProvider.generateRefreshToken(authentication, organizationId, familyId, 0);
             
         return ResponseEntity.ok(new LoginResponse(accessToken, refreshToken));
     }
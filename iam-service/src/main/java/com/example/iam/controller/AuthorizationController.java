@@ -3,6 +3,9 @@ package com.example.iam.controller;
 import com.example.iam.service.AuthorizationService;
 import com.example.iam.dto.AuthorizationRequest;
 import com.example.iam.dto.AuthorizationResponse;
+import com.example.iam.dto.BatchAuthorizationRequest;
+import com.example.iam.dto.BatchAuthorizationResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -22,4 +25,10 @@ public class AuthorizationController {
         boolean hasPermission = authorizationService.checkPermission(request.getToken(), request.getPath(), request.getMethod());
         return ResponseEntity.ok(new AuthorizationResponse(hasPermission));
     }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchAuthorizationResponse> checkPermissions(@Valid @RequestBody BatchAuthorizationRequest request) {
+        boolean[] decisions = authorizationService.checkPermissions(request.getToken(), request.getChecks());
+        return ResponseEntity.ok(new BatchAuthorizationResponse(decisions));
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.example.iam.controller;
+
+import com.example.iam.dto.BatchIntrospectionRequest;
+import com.example.iam.dto.BatchIntrospectionResponse;
+import com.example.iam.dto.TokenIntrospectionResponse;
+import com.example.iam.service.TokenIntrospectionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Single-token introspection is the authorization server's /oauth2/introspect endpoint (see
+// AuthorizationServerConfig); this adds introspecting many tokens in one round trip. Like that
+// endpoint (RFC 7662), it is only open to authenticated clients, not to user tokens.
+@RestController
+@RequestMapping("/oauth2/introspect")
+@RequiredArgsConstructor
+public class IntrospectionController {
+
+    private final TokenIntrospectionService introspectionService;
+
+    @PostMapping("/batch")
+    @PreAuthorize("principal instanceof T(com.example.iam.security.ClientPrincipal)")
+    public ResponseEntity<BatchIntrospectionResponse> introspectAll(@Valid @RequestBody BatchIntrospectionRequest request) {
+        List<TokenIntrospectionResponse> results = introspectionService.introspectAll(request.getTokens());
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(introspectionService.cacheDuration(results)).cachePrivate())
+                .body(new BatchIntrospectionResponse(results));
+    }
+}
@@ -1,22 +1,37 @@
 package com.example.iam.controller;
 
-import com.nimbusds.jose.jwk.JWKSet;
-import com.example.iam.security.JwtTokenProvider;
+import com.example.iam.security.SigningKeyRing;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
 public class JwksController {
 
-    private final JwtTokenProvider jwtTokenProvider;
+    private final SigningKeyRing keyRing;
+
+    // Resource servers may cache the key set this long; a token with a kid they have not seen yet
+    // (right after a rotation) makes them refetch early.
+    @Value("${app.jwt.jwks.max-age:PT1H}")
+    private Duration maxAge;
 
     @GetMapping("/oauth2/jwks.json")
-    public Map<String, Object> jwks() {
-        JWKSet jwkSet = jwtTokenProvider.getJwkSet();
-        return jwkSet.toJSONObject();
+    public ResponseEntity<Map<String, Object>> jwks(WebRequest request) {
+        String etag = keyRing.getPublicJwkSetETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+                .eTag(etag)
+                .body(keyRing.getPublicJwkSet().toJSONObject());
     }
-} 
\ No newline at end of file
+}
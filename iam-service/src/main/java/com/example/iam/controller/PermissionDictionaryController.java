@@ -0,0 +1,80 @@
+package com.example.iam.controller;
+
+import com.example.iam.authorization.AuthorizationModelRegistry;
+import com.example.iam.authorization.PermissionDictionary;
+import com.example.iam.dto.PermissionDictionaryDTO;
+import com.example.iam.exception.ResourceNotFoundException;
+import com.example.iam.security.VerifiedToken;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.Objects;
+
+// Publishes the permission dictionaries that the compact pbits claim of access tokens is encoded with.
+// A given version never changes, so resource servers can cache it indefinitely and only fetch again
+// when a token names a version they have not seen.
+@RestController
+@RequestMapping("/permissions/dictionary")
+@RequiredArgsConstructor
+public class PermissionDictionaryController {
+
+    private final AuthorizationModelRegistry modelRegistry;
+
+    @Value("${app.jwt.permissions.dictionary-max-age:PT5M}")
+    private Duration currentMaxAge;
+
+    @GetMapping
+    public ResponseEntity<PermissionDictionaryDTO> current(@RequestParam(required = false) Long organizationId,
+                                                           WebRequest request) {
+        Long orgId = resolveOrganization(organizationId);
+        PermissionDictionary dictionary = modelRegistry.current(orgId).getPermissions();
+        String etag = "\"" + dictionary.getVersion() + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(currentMaxAge).cachePrivate())
+                .eTag(etag)
+                .body(toDto(orgId, dictionary));
+    }
+
+    @GetMapping("/{version}")
+    public ResponseEntity<PermissionDictionaryDTO> byVersion(@PathVariable String version,
+                                                             @RequestParam(required = false) Long organizationId) {
+        Long orgId = resolveOrganization(organizationId);
+        PermissionDictionary dictionary = modelRegistry.dictionary(orgId, version);
+        if (dictionary == null) {
+            throw new ResourceNotFoundException("Permission dictionary " + version + " not found");
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+                .body(toDto(orgId, dictionary));
+    }
+
+    // Callers see their own organization's dictionary; only organization-less (super admin) tokens may pick one.
+    private Long resolveOrganization(Long organizationId) {
+        VerifiedToken caller = VerifiedToken.current();
+        Long callerOrganization = caller != null ? caller.getOrganizationId() : null;
+        if (organizationId == null || callerOrganization == null) {
+            return organizationId != null ? organizationId : callerOrganization;
+        }
+        if (!Objects.equals(organizationId, callerOrganization)) {
+            throw new AccessDeniedException("Permission dictionary of another organization");
+        }
+        return organizationId;
+    }
+
+    private static PermissionDictionaryDTO toDto(Long organizationId, PermissionDictionary dictionary) {
+        return new PermissionDictionaryDTO(organizationId, dictionary.getVersion(), dictionary.getNames());
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.iam.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+public class BatchAuthorizationRequest {
+    private String token;
+    @NotEmpty(message = "At least one check is required")
+    @Size(max = 100, message = "At most 100 checks can be evaluated per request")
+    private List<Check> checks;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Check {
+        private String path;
+        private String method;
+    }
+}
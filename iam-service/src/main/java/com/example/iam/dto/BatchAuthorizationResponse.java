@@ -0,0 +1,13 @@
+package com.example.iam.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAuthorizationResponse {
+    // One entry per requested check, in request order.
+    private boolean[] decisions;
+}
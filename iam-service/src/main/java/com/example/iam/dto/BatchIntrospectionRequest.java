@@ -0,0 +1,14 @@
+package com.example.iam.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchIntrospectionRequest {
+    @NotEmpty(message = "At least one token is required")
+    @Size(max = 100, message = "At most 100 tokens can be introspected per request")
+    private List<String> tokens;
+}
@@ -0,0 +1,15 @@
+package com.example.iam.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIntrospectionResponse {
+    // One entry per requested token, in request order.
+    private List<TokenIntrospectionResponse> results;
+}
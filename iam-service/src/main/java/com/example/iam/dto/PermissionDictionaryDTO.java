@@ -0,0 +1,18 @@
+package com.example.iam.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PermissionDictionaryDTO {
+    private Long organizationId;
+    // Matches the pdict claim of access tokens whose pbits claim was encoded with this dictionary.
+    private String version;
+    // Bit i of pbits stands for permissions[i].
+    private List<String> permissions;
+}
@@ -0,0 +1,34 @@
+package com.example.iam.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+// RFC 7662 introspection response; inactive tokens carry nothing but active=false.
+// Immutable, so INACTIVE and responses shared between duplicate tokens of a batch cannot be altered.
+@Getter
+@Builder
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospectionResponse {
+
+    public static final TokenIntrospectionResponse INACTIVE = TokenIntrospectionResponse.builder().active(false).build();
+
+    private final boolean active;
+    private final String sub;
+    private final String username;
+    @JsonProperty("client_id")
+    private final String clientId;
+    private final String scope;
+    @JsonProperty("token_type")
+    private final String tokenType;
+    // Seconds since the epoch
+    private final Long exp;
+    private final Long iat;
+    private final String jti;
+    @JsonProperty("organization_id")
+    private final Long organizationId;
+}
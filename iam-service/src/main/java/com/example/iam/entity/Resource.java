@@ -1,6 +1,8 @@
 package com.example.iam.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -15,6 +17,7 @@ import lombok.Builder;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "resources")
 @SuperBuilder
 public class Resource extends BaseEntity {
@@ -36,6 +39,7 @@ public class Resource extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private HttpMethod method;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ManyToMany(fetch = FetchType.EAGER, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinTable(
         name = "resource_permissions",
@@ -16,12 +16,15 @@ import jakarta.validation.constraints.Size;
 import lombok.experimental.SuperBuilder;
 import lombok.Builder;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "scopes")
 @SuperBuilder
 public class Scope extends BaseEntity {
@@ -38,6 +41,7 @@ public class Scope extends BaseEntity {
     @JoinColumn(name = "organization_id")
     private Organization organization;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "scope_permissions",
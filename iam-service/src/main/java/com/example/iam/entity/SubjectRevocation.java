@@ -0,0 +1,39 @@
+package com.example.iam.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// "Revoke everything issued so far" marker for one user or client application: every token of the
+// subject issued in an earlier second than revokedBefore is rejected, without touching the token rows.
+// iat has second precision, so tokens issued within that second are revoked through their own rows.
+// The unique constraint does not cover rows without organization; see SubjectRevocationSchema.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "subject_revocations", uniqueConstraints = @UniqueConstraint(
+        name = "uk_subject_revocations_subject", columnNames = {"organization_id", "subject_type", "subject"}))
+public class SubjectRevocation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "organization_id")
+    private Organization organization;
+
+    @Column(name = "subject_type", nullable = false, length = 16)
+    private String subjectType;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(name = "revoked_before", nullable = false)
+    private LocalDateTime revokedBefore;
+}
@@ -13,7 +13,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "tokens")
+@Table(name = "tokens", indexes = {
+        @Index(name = "uk_tokens_token_hash", columnList = "token_hash", unique = true),
+        @Index(name = "uk_tokens_jti", columnList = "jti", unique = true),
+        @Index(name = "idx_tokens_family_id", columnList = "family_id"),
+        @Index(name = "idx_tokens_revoked_at", columnList = "revoked_at")
+})
 public class Token {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -34,6 +39,20 @@ public class Token {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String token;
 
+    // SHA-256 of the compact token (see TokenDigest); tokens are looked up by this, never by the TEXT column.
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @Column(name = "jti", length = 36)
+    private String jti;
+
+    // Refresh token family (fam claim) shared by a login's refresh tokens and the access tokens issued with them.
+    @Column(name = "family_id", length = 36)
+    private String familyId;
+
+    // rot claim of a refresh token issued in a family; null for access tokens.
+    private Integer rotation;
+
     @Column(name = "token_type", nullable = false)
     @Enumerated(EnumType.STRING)
     private TokenType tokenType;
@@ -42,6 +61,10 @@ public class Token {
 
     private boolean revoked;
 
+    // When the token was revoked; other nodes pick up revocations newer than their last poll by this column.
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -2,12 +2,29 @@ package com.example.iam.repository;
 
 import com.example.iam.entity.ClientApplication;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface ClientApplicationRepository extends JpaRepository<ClientApplication, Long> {
     Optional<ClientApplication> findByClientId(String clientId);
     Optional<ClientApplication> findByClientIdAndOrganizationId(String clientId, Long organizationId);
+    List<ClientApplication> findByOrganizationId(Long organizationId);
+    List<ClientApplication> findByOrganizationIsNull();
+
+    // Permission names granted through the client's scopes, in a single statement.
+    @Query("SELECT DISTINCT p.name FROM ClientApplication c JOIN c.scopes s JOIN s.permissions p WHERE c.id = :clientApplicationId")
+    Set<String> findPermissionNamesById(@Param("clientApplicationId") Long clientApplicationId);
+
+    // (clientApplicationId, scopeId) pairs
+    @Query("SELECT c.id, s.id FROM ClientApplication c JOIN c.scopes s WHERE c.organization.id = :organizationId")
+    List<Object[]> findScopeIdsByOrganizationId(@Param("organizationId") Long organizationId);
+
+    @Query("SELECT c.id, s.id FROM ClientApplication c JOIN c.scopes s WHERE c.organization IS NULL")
+    List<Object[]> findScopeIdsWithoutOrganization();
 } 
\ No newline at end of file
@@ -1,12 +1,17 @@
 package com.example.iam.repository;
 
 import com.example.iam.entity.Organization;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface OrganizationRepository extends JpaRepository<Organization, Long> {
+    // Organizations are not subject to the organization filter, so the query cache key is complete.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Organization> findByName(String name);
 } 
\ No newline at end of file
@@ -8,8 +8,7 @@ import java.util.Set;
 import com.example.iam.entity.Organization;
 
 @Repository
-public interface PermissionRepository extends JpaRepository<Permission, Long> {
-    Optional<Permission> findByName(String name);
+public interface PermissionRepository extends JpaRepository<Permission, Long>, PermissionRepositoryCustom {
     Set<Permission> findByNameIn(Set<String> names);
     Optional<Permission> findByNameAndOrganization(String name, Organization organization);
 } 
\ No newline at end of file
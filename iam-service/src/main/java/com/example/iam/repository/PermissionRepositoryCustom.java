@@ -0,0 +1,11 @@
+package com.example.iam.repository;
+
+import com.example.iam.entity.Permission;
+
+import java.util.Optional;
+
+public interface PermissionRepositoryCustom {
+
+    // Served from the query cache; see PermissionRepositoryCustomImpl.
+    Optional<Permission> findByName(String name);
+}
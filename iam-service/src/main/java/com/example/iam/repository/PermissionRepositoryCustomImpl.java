@@ -0,0 +1,46 @@
+package com.example.iam.repository;
+
+import com.example.iam.entity.Permission;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Filter;
+import org.hibernate.Session;
+import org.hibernate.internal.FilterImpl;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+// Hibernate keys cached query results by SQL, parameters and the names of the enabled filters, but not by
+// the filters' parameter values. A cached findByName run under one organization's filter would therefore
+// be served to every other organization. The organization the filter is bound to is repeated here as an
+// ordinary query parameter so cached results stay per organization.
+public class PermissionRepositoryCustomImpl implements PermissionRepositoryCustom {
+
+    private static final String ORGANIZATION_FILTER = "organizationFilter";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Permission> findByName(String name) {
+        Filter filter = entityManager.unwrap(Session.class).getEnabledFilter(ORGANIZATION_FILTER);
+        TypedQuery<Permission> query;
+        if (filter instanceof FilterImpl organizationFilter) {
+            query = entityManager.createQuery(
+                            "SELECT p FROM Permission p WHERE p.name = :name AND p.organization.id = :organizationId",
+                            Permission.class)
+                    .setParameter("organizationId", organizationFilter.getParameter("organizationId"));
+        } else {
+            query = entityManager.createQuery("SELECT p FROM Permission p WHERE p.name = :name", Permission.class);
+        }
+        // getResultList rather than getResultStream: scrolled results bypass the query cache.
+        return query.setParameter("name", name)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+}
@@ -20,6 +20,8 @@ public interface PolicyRepository extends JpaRepository<Policy, Long> {
     Set<Policy> findBySubjectTypeAndSubjectIdAndResource(Policy.SubjectType subjectType, Long subjectId, Resource resource);
 
     List<Policy> findByEffect(Policy.Effect effect);
+    List<Policy> findByOrganizationId(Long organizationId);
+    List<Policy> findByOrganizationIsNull();
     
     @Query("SELECT p FROM Policy p WHERE p.resource.id = :resourceId AND p.action = :action")
     List<Policy> findByResourceAndAction(@Param("resourceId") Long resourceId, @Param("action") String action);
@@ -2,8 +2,11 @@ package com.example.iam.repository;
 
 import com.example.iam.entity.Resource;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +15,10 @@ public interface ResourceRepository extends JpaRepository<Resource, Long> {
     Optional<Resource> findByName(String name);
     Optional<Resource> findByPath(String path);
     Optional<Resource> findByPathAndMethod(String path, Resource.HttpMethod method);
+
+    @Query("SELECT DISTINCT r FROM Resource r LEFT JOIN FETCH r.permissions WHERE r.organization.id = :organizationId")
+    List<Resource> findByOrganizationIdWithPermissions(@Param("organizationId") Long organizationId);
+
+    @Query("SELECT DISTINCT r FROM Resource r LEFT JOIN FETCH r.permissions")
+    List<Resource> findAllWithPermissions();
 }
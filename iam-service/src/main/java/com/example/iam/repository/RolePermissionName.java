@@ -0,0 +1,10 @@
+package com.example.iam.repository;
+
+// One (role, permission) pair of a subject's effective permissions, as projected by
+// UserRepository#findRolePermissionNamesByUserId. permissionName is null for a role without permissions.
+public interface RolePermissionName {
+
+    String getRoleName();
+
+    String getPermissionName();
+}
@@ -3,6 +3,8 @@ package com.example.iam.repository;
 import com.example.iam.entity.Role;
 import com.example.iam.entity.Organization;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,4 +18,11 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
     List<Role> findByNameInAndOrganizationId(Set<String> names, Long organizationId);
     Optional<Role> findByIdAndOrganizationId(Long id, Long organizationId);
     Optional<Role> findByNameAndOrganization(String name, Organization organization);
+
+    // (roleName, roleId) pairs
+    @Query("SELECT r.name, r.id FROM Role r WHERE r.organization.id = :organizationId")
+    List<Object[]> findNamesAndIdsByOrganizationId(@Param("organizationId") Long organizationId);
+
+    @Query("SELECT r.name, r.id FROM Role r WHERE r.organization IS NULL")
+    List<Object[]> findNamesAndIdsWithoutOrganization();
 } 
\ No newline at end of file
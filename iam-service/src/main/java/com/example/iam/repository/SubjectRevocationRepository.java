@@ -0,0 +1,17 @@
+package com.example.iam.repository;
+
+import com.example.iam.entity.SubjectRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SubjectRevocationRepository extends JpaRepository<SubjectRevocation, Long> {
+    // The newest row, so that duplicates of an organization-less subject (see SubjectRevocationSchema) cannot fail the lookup.
+    Optional<SubjectRevocation> findFirstByOrganizationIdAndSubjectTypeAndSubjectOrderByRevokedBeforeDesc(
+            Long organizationId, String subjectType, String subject);
+    List<SubjectRevocation> findByRevokedBeforeAfter(LocalDateTime cutoff);
+}
@@ -2,18 +2,86 @@ package com.example.iam.repository;
 
 import com.example.iam.entity.Token;
 import com.example.iam.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TokenRepository extends JpaRepository<Token, Long> {
-    List<Token> findByToken(String token);
+    Optional<Token> findByTokenHash(String tokenHash);
+    boolean existsByTokenHashAndRevokedFalseAndExpiredFalse(String tokenHash);
+    List<Token> findByTokenHashIsNullAndRevokedFalseAndExpiresAtAfter(LocalDateTime now);
     List<Token> findByUserId(Long userId);
     List<Token> findByClientId(String clientId);
-    List<Token> findByUserAndExpiredFalseAndRevokedFalse(User user);
-    List<Token> findByUserAndTokenTypeAndExpiredFalseAndRevokedFalse(User user, Token.TokenType tokenType);
-    List<Token> findByClientIdAndTokenTypeAndExpiredFalseAndRevokedFalse(String clientId, Token.TokenType tokenType);
-} 
\ No newline at end of file
+
+    // (id, jti, expiresAt, revokedAt) of tokens of the given type revoked since the given time that have not
+    // expired yet, one page at a time in id order; pass the last id of the previous page as afterId.
+    @Query("SELECT t.id, t.jti, t.expiresAt, t.revokedAt FROM Token t WHERE t.revoked = true AND t.tokenType = :tokenType "
+            + "AND t.jti IS NOT NULL AND t.revokedAt >= :since AND t.expiresAt > :now AND t.id > :afterId ORDER BY t.id")
+    List<Object[]> findRevokedJtis(@Param("tokenType") Token.TokenType tokenType, @Param("since") LocalDateTime since,
+                                   @Param("now") LocalDateTime now, @Param("afterId") long afterId, Pageable page);
+
+    // (jti, expiresAt) of the tokens the matching bulk revocation below is about to revoke.
+    @Query("SELECT t.jti, t.expiresAt FROM Token t WHERE t.user = :user AND t.tokenType = :tokenType "
+            + "AND t.revoked = false AND t.expired = false AND t.jti IS NOT NULL")
+    List<Object[]> findActiveJtisByUserAndTokenType(@Param("user") User user, @Param("tokenType") Token.TokenType tokenType);
+
+    @Query("SELECT t.jti, t.expiresAt FROM Token t WHERE t.clientId = :clientId AND t.tokenType = :tokenType "
+            + "AND t.revoked = false AND t.expired = false AND t.jti IS NOT NULL")
+    List<Object[]> findActiveJtisByClientIdAndTokenType(@Param("clientId") String clientId, @Param("tokenType") Token.TokenType tokenType);
+
+    @Modifying
+    @Query("UPDATE Token t SET t.revoked = true, t.revokedAt = :now WHERE t.user = :user AND t.tokenType = :tokenType "
+            + "AND t.revoked = false AND t.expired = false")
+    int revokeByUserAndTokenType(@Param("user") User user, @Param("tokenType") Token.TokenType tokenType,
+                                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Token t SET t.revoked = true, t.revokedAt = :now WHERE t.clientId = :clientId AND t.tokenType = :tokenType "
+            + "AND t.revoked = false AND t.expired = false")
+    int revokeByClientIdAndTokenType(@Param("clientId") String clientId, @Param("tokenType") Token.TokenType tokenType,
+                                     @Param("now") LocalDateTime now);
+
+    @Query("SELECT t.jti, t.expiresAt FROM Token t WHERE t.familyId = :familyId AND t.tokenType = :tokenType "
+            + "AND t.revoked = false AND t.expired = false AND t.jti IS NOT NULL")
+    List<Object[]> findActiveJtisByFamilyIdAndTokenType(@Param("familyId") String familyId, @Param("tokenType") Token.TokenType tokenType);
+
+    // Highest rotation issued in the family so far, or null if none of its rows carries one.
+    @Query("SELECT MAX(t.rotation) FROM Token t WHERE t.familyId = :familyId")
+    Integer findLatestRotationByFamilyId(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("UPDATE Token t SET t.revoked = true, t.revokedAt = :now WHERE t.familyId = :familyId AND t.revoked = false AND t.expired = false")
+    int revokeByFamilyId(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Token t SET t.revoked = true, t.revokedAt = :now WHERE t.user = :user AND t.revoked = false AND t.expired = false")
+    int revokeByUser(@Param("user") User user, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Token t SET t.revoked = true, t.revokedAt = :now WHERE t.tokenHash = :tokenHash AND t.revoked = false")
+    int revokeByTokenHash(@Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
+
+    // Ids are selected first so that each UPDATE/DELETE touches at most one page of rows.
+    @Query("SELECT t.id FROM Token t WHERE t.expired = false AND t.expiresAt < :now")
+    List<Long> findExpiredUnmarkedIds(@Param("now") LocalDateTime now, Pageable page);
+
+    @Query("SELECT t.id FROM Token t WHERE t.expiresAt < :cutoff")
+    List<Long> findExpiredIds(@Param("cutoff") LocalDateTime cutoff, Pageable page);
+
+    @Modifying
+    @Query("UPDATE Token t SET t.expired = true WHERE t.id IN :ids")
+    int markExpired(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Token t WHERE t.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -4,6 +4,7 @@ import com.example.iam.entity.User;
 import com.example.iam.entity.Organization;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -30,4 +31,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByIdAndOrganizationId(Long id, Long organizationId);
 
     Optional<User> findByUsernameAndOrganization(String username, Organization organization);
+
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles r LEFT JOIN FETCH r.permissions WHERE u.organization.id = :organizationId")
+    List<User> findByOrganizationIdWithRolesAndPermissions(@Param("organizationId") Long organizationId);
+
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles r LEFT JOIN FETCH r.permissions WHERE u.organization IS NULL")
+    List<User> findWithoutOrganizationWithRolesAndPermissions();
+
+    // Role and permission names of one user in a single statement, instead of walking the lazy
+    // roles -> permissions collections (one query per role).
+    @Query("SELECT r.name AS roleName, p.name AS permissionName FROM User u JOIN u.roles r LEFT JOIN r.permissions p WHERE u.id = :userId")
+    List<RolePermissionName> findRolePermissionNamesByUserId(@Param("userId") Long userId);
+
+    // (userId, scopeId) pairs
+    @Query("SELECT u.id, s.id FROM User u JOIN u.scopes s WHERE u.organization.id = :organizationId")
+    List<Object[]> findScopeIdsByOrganizationId(@Param("organizationId") Long organizationId);
+
+    @Query("SELECT u.id, s.id FROM User u JOIN u.scopes s WHERE u.organization IS NULL")
+    List<Object[]> findScopeIdsWithoutOrganization();
 } 
\ No newline at end of file
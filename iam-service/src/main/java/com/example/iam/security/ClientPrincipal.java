@@ -21,10 +21,10 @@ public class ClientPrincipal implements UserDetails {
     private Collection<? extends GrantedAuthority> authorities;
     private ClientApplication client;
 
-    public static ClientPrincipal create(ClientApplication client) {
-        List<GrantedAuthority> authorities = client.getScopes().stream()
-                .flatMap(scope -> scope.getPermissions().stream())
-                .map(permission -> new SimpleGrantedAuthority(permission.getName()))
+    // permissionNames come from ClientApplicationRepository#findPermissionNamesById.
+    public static ClientPrincipal create(ClientApplication client, Collection<String> permissionNames) {
+        List<GrantedAuthority> authorities = permissionNames.stream()
+                .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
     
         return ClientPrincipal.builder()
@@ -35,6 +35,14 @@ public class ClientPrincipal implements UserDetails {
                 .build();
     }
 
+    // Copy for caching beyond the request: no client secret, no entity, unmodifiable authorities.
+    public ClientPrincipal detached() {
+        return ClientPrincipal.builder()
+                .clientId(clientId)
+                .authorities(List.copyOf(authorities))
+                .build();
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
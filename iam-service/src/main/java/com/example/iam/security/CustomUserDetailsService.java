@@ -32,10 +32,10 @@ public class CustomUserDetailsService implements UserDetailsService {
         System.out.println("superAdminUsername: " + superAdminUsername);
         if (superAdminUsername.equals(usernameOrClientId)) {
             System.out.println("superAdminUsername: " + superAdminUsername);
-            User superAdmin = userRepository.findByUsername(usernameOrClientId)
+            User superAdmin = userRepository.findByUsernameWithRoles(usernameOrClientId)
                     .orElseThrow(() -> new UsernameNotFoundException("Super admin user not found: " + usernameOrClientId));
             System.out.println("superAdmin: " + superAdmin);
-            return UserPrincipal.create(superAdmin);
+            return UserPrincipal.create(superAdmin, userRepository.findRolePermissionNamesByUserId(superAdmin.getId()));
         }
 
         // For regular users, an organization context is required
@@ -48,13 +48,13 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByUsernameAndOrganizationIdWithRoles(usernameOrClientId, organizationId).orElse(null);
         System.out.println("user: " + user);
         if (user != null) {
-            return UserPrincipal.create(user);
+            return UserPrincipal.create(user, userRepository.findRolePermissionNamesByUserId(user.getId()));
         }
 
         // If not a user, try to find a client application
         ClientApplication client = clientApplicationRepository.findByClientIdAndOrganizationId(usernameOrClientId, organizationId).orElse(null);
         if (client != null) {
-            return ClientPrincipal.create(client);
+            return ClientPrincipal.create(client, clientApplicationRepository.findPermissionNamesById(client.getId()));
         }
 
         throw new UsernameNotFoundException("No user or client found with username/clientId: " + usernameOrClientId + " in the given organization.");
@@ -8,7 +8,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -22,7 +21,7 @@ import org.springframework.security.core.AuthenticationException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -33,14 +32,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (StringUtils.hasText(jwt)) {
                 // This will throw InvalidTokenException for any validation failures.
-                tokenProvider.validateToken(jwt);
+                VerifiedToken verifiedToken = tokenProvider.verify(jwt);
+                // Downstream filters and services read the claims from here instead of parsing the token again
+                request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, verifiedToken);
 
                 // Token is valid, set up the security context
-                    Long organizationId = tokenProvider.getOrganizationIdFromJWT(jwt);
+                    Long organizationId = verifiedToken.getOrganizationId();
                     OrganizationContextHolder.setOrganizationId(organizationId);
                     
-                String subject = tokenProvider.getSubjectFromJWT(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(subject);
+                String subject = verifiedToken.getSubject();
+                UserDetails userDetails = principalCache.load(verifiedToken);
     
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
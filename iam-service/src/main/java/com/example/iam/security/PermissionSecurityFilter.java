@@ -1,9 +1,8 @@
 package com.example.iam.security;
 
-import com.example.iam.entity.Permission;
-import com.example.iam.entity.Resource;
-import com.example.iam.repository.ResourceRepository;
-import com.example.iam.security.JwtTokenProvider;
+import com.example.iam.authorization.AuthorizationModel;
+import com.example.iam.authorization.AuthorizationModelRegistry;
+import com.example.iam.authorization.ResourceEntry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,16 +13,14 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
-import java.util.Collections;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.List;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class PermissionSecurityFilter extends OncePerRequestFilter {
 
-    private final ResourceRepository resourceRepository;
+    private final AuthorizationModelRegistry modelRegistry;
     private final JwtTokenProvider tokenProvider;
 
     @Override
@@ -32,35 +29,25 @@ public class PermissionSecurityFilter extends OncePerRequestFilter {
         
         String token = getTokenFromRequest(request);
 
-        if (token == null || !tokenProvider.validateToken(token)) {
+        if (token == null) {
             filterChain.doFilter(request, response);
             return;
         }
+        VerifiedToken verifiedToken = tokenProvider.verify(token);
 
         String path = request.getRequestURI();
         String method = request.getMethod();
 
-        try {
-            Resource.HttpMethod httpMethod = Resource.HttpMethod.valueOf(method.toUpperCase());
-            resourceRepository.findByPathAndMethod(path, httpMethod).ifPresent(resource -> {
-                Set<String> requiredPermissions = resource.getPermissions().stream()
-                        .map(Permission::getName)
-                        .collect(Collectors.toSet());
-
-                if (requiredPermissions.isEmpty()) {
-                    return; // No specific permissions required for this resource
-                }
-
-                Set<String> userPermissions = tokenProvider.getPermissionsFromJWT(token);
-
-                if (userPermissions == null || Collections.disjoint(userPermissions, requiredPermissions)) {
-                    log.warn("Access denied for resource {}. Required: {}, User has: {}",
-                            resource.getName(), requiredPermissions, userPermissions);
-                    throw new AccessDeniedException("Insufficient permissions");
-                }
-            });
-        } catch (IllegalArgumentException e) {
-            log.trace("No enum constant for HTTP method: {}", method);
+        AuthorizationModel model = modelRegistry.current(verifiedToken.getOrganizationId());
+        List<ResourceEntry> resources = model.getResources().match(path, method);
+        if (ResourceEntry.requiresPermission(resources)) {
+            long[] userPermissions = modelRegistry.permissionBits(model, verifiedToken);
+            if (!ResourceEntry.grantsAnyRequired(resources, userPermissions)) {
+                log.warn("Access denied for path {} {}. Required one of: {}, User has: {}", method, path,
+                        resources.stream().flatMap(r -> r.getPermissions().stream()).toList(),
+                        model.getPermissions().decode(userPermissions));
+                throw new AccessDeniedException("Insufficient permissions");
+            }
         }
 
         filterChain.doFilter(request, response);
@@ -0,0 +1,116 @@
+package com.example.iam.security;
+
+import com.example.iam.authorization.AuthorizationChangeEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Principals that JwtAuthenticationFilter builds for bearer tokens, keyed by (organization, subject, token
+// issue time). Loading one costs a fetch-join plus lazy permission loads; a cached one costs nothing.
+// Entries hold detached copies without credentials or entities. Each entry records its organization's
+// generation, which is bumped when users, clients, roles, scopes or resources (and with them permissions)
+// of the organization change; an entry of an older generation is a miss. Revoked tokens need no eviction,
+// as the filter validates the token before it asks for the principal.
+@Component
+@RequiredArgsConstructor
+public class PrincipalCache {
+
+    @Value("${app.security.principal-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.security.principal-cache.ttl:PT10M}")
+    private Duration ttl;
+
+    private final UserDetailsService userDetailsService;
+
+    private Cache<Key, Entry> cache;
+    // organization -> generation; a load that raced with a change is stored under the older generation.
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // Expects the organization context of the token to be set, as loadUserByUsername needs it.
+    public UserDetails load(VerifiedToken token) {
+        if (!enabled) {
+            return userDetailsService.loadUserByUsername(token.getSubject());
+        }
+        Date issuedAt = token.getIssuedAt();
+        Key key = new Key(token.getOrganizationId(), token.getSubject(), issuedAt != null ? issuedAt.getTime() : 0);
+        AtomicLong current = generation(token.getOrganizationId());
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null && cached.generation == current.get()) {
+            return cached.principal;
+        }
+        long generation = current.get();
+        UserDetails loaded = detach(userDetailsService.loadUserByUsername(token.getSubject()));
+        cache.put(key, new Entry(loaded, generation));
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorizationChange(AuthorizationChangeEvent event) {
+        // Policies are evaluated by the authorization engine and are not part of the principal.
+        if (event.getType() == AuthorizationChangeEvent.Type.POLICY) {
+            return;
+        }
+        if (event.getOrganizationId() == null) {
+            generations.values().forEach(AtomicLong::incrementAndGet);
+            cache.invalidateAll();
+            return;
+        }
+        generation(event.getOrganizationId()).incrementAndGet();
+    }
+
+    // The super admin's tokens carry no organization and share the generation keyed by 0.
+    private AtomicLong generation(Long organizationId) {
+        return generations.computeIfAbsent(organizationId != null ? organizationId : 0L, id -> new AtomicLong());
+    }
+
+    private static UserDetails detach(UserDetails principal) {
+        if (principal instanceof UserPrincipal user) {
+            return user.detached();
+        }
+        if (principal instanceof ClientPrincipal client) {
+            return client.detached();
+        }
+        return principal;
+    }
+
+    @ToString
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    static final class Key {
+        private final Long organizationId;
+        private final String subject;
+        private final long issuedAt;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+        private final UserDetails principal;
+        private final long generation;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.iam.security;
+
+import com.example.iam.dto.TokenIntrospectionResponse;
+import com.example.iam.service.TokenIntrospectionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenIntrospection;
+import org.springframework.security.oauth2.server.authorization.authentication.OAuth2TokenIntrospectionAuthenticationToken;
+
+import java.time.Instant;
+import java.util.List;
+
+// Lets the authorization server's /oauth2/introspect endpoint answer for the tokens JwtTokenProvider
+// issues. Returns null for tokens it did not issue so the default provider (which only knows tokens
+// stored in the OAuth2AuthorizationService) still handles those.
+@RequiredArgsConstructor
+public class TokenIntrospectionAuthenticationProvider implements AuthenticationProvider {
+
+    private final TokenIntrospectionService introspectionService;
+
+    @Override
+    public Authentication authenticate(Authentication authentication) {
+        OAuth2TokenIntrospectionAuthenticationToken request = (OAuth2TokenIntrospectionAuthenticationToken) authentication;
+        Authentication client = (Authentication) request.getPrincipal();
+        if (client == null || !client.isAuthenticated()) {
+            throw new OAuth2AuthenticationException(OAuth2ErrorCodes.INVALID_CLIENT);
+        }
+        TokenIntrospectionResponse response = introspectionService.introspectIssued(request.getToken());
+        if (response == null) {
+            return null;
+        }
+        return new OAuth2TokenIntrospectionAuthenticationToken(request.getToken(), client, toClaims(response));
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return OAuth2TokenIntrospectionAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    private static OAuth2TokenIntrospection toClaims(TokenIntrospectionResponse response) {
+        OAuth2TokenIntrospection.Builder claims = OAuth2TokenIntrospection.builder(true)
+                .subject(response.getSub())
+                .tokenType(response.getTokenType());
+        if (response.getExp() != null) {
+            claims.expiresAt(Instant.ofEpochSecond(response.getExp()));
+        }
+        if (response.getIat() != null) {
+            claims.issuedAt(Instant.ofEpochSecond(response.getIat()));
+        }
+        if (response.getUsername() != null) {
+            claims.username(response.getUsername());
+        }
+        if (response.getClientId() != null) {
+            claims.clientId(response.getClientId());
+        }
+        if (response.getScope() != null) {
+            claims.scopes(scopes -> scopes.addAll(List.of(response.getScope().split(" "))));
+        }
+        if (response.getJti() != null) {
+            claims.id(response.getJti());
+        }
+        if (response.getOrganizationId() != null) {
+            claims.claim("organization_id", response.getOrganizationId());
+        }
+        return claims.build();
+    }
+}
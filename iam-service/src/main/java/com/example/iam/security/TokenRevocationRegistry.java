@@ -0,0 +1,194 @@
+package com.example.iam.security;
+
+import com.example.iam.entity.SubjectRevocation;
+import com.example.iam.entity.Token;
+import com.example.iam.repository.SubjectRevocationRepository;
+import com.example.iam.repository.TokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+// In-memory view of token revocations: revoked access token jti values, and per-subject "revoked
+// before" epochs that revoke every token issued in an earlier second. TokenService records the
+// revocations made on this node, which VerifiedTokenCache hits are checked against. An entry is
+// dropped once every token it could match has expired on its own.
+//
+// With app.jwt.revocation.in-memory.enabled the registry also replaces the token store probe for
+// access tokens: it is loaded at startup and then polls the tokens and subject_revocations tables
+// every poll-interval for revocations made on other nodes, so a revocation takes effect cluster-wide
+// within that interval. Refresh tokens and tokens without the token_use claim are always checked
+// against the token store. Without the flag every verification probes the store, as before.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationRegistry {
+
+    private final TokenRepository tokenRepository;
+    private final SubjectRevocationRepository subjectRevocationRepository;
+
+    // Lifetime of the longest-lived token type; an epoch cannot match any token older than this.
+    @Value("${app.jwt.refresh-token.expiration}")
+    private long maxTokenLifetimeMs;
+
+    // A revoked access token cannot outlive this, so older revocations need not be loaded.
+    @Value("${app.jwt.access-token.expiration}")
+    private long accessTokenLifetimeMs;
+
+    @Value("${app.jwt.revocation.in-memory.enabled:false}")
+    private boolean enabled;
+
+    // Re-read window before the newest revocation seen, for clock skew between nodes and transactions
+    // that commit after a later revocation has already been read.
+    @Value("${app.jwt.revocation.poll-overlap:PT1M}")
+    private Duration pollOverlap;
+
+    @Value("${app.jwt.revocation.page-size:1000}")
+    private int pageSize;
+
+    // jti -> expiry of the token (epoch millis)
+    private Cache<String, Long> revokedJtis;
+    // subject -> epoch millis of the revocation; tokens issued in an earlier second are revoked
+    private Cache<SubjectKey, Long> revokedBefore;
+    // Revocations up to these times minus pollOverlap have been read; only touched by init and poll.
+    private LocalDateTime jtisReadUntil;
+    private LocalDateTime subjectsReadUntil;
+
+    @PostConstruct
+    public void init() {
+        revokedJtis = Caffeine.newBuilder()
+                .expireAfter(expiringAt((Long expiresAtMs) -> expiresAtMs))
+                .build();
+        revokedBefore = Caffeine.newBuilder()
+                .expireAfter(expiringAt((Long revokedAtMs) -> revokedAtMs + maxTokenLifetimeMs))
+                .build();
+
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        jtisReadUntil = now.minus(accessTokenLifetimeMs, ChronoUnit.MILLIS).plus(pollOverlap);
+        subjectsReadUntil = now.minus(maxTokenLifetimeMs, ChronoUnit.MILLIS).plus(pollOverlap);
+        poll();
+        log.info("Loaded {} revoked tokens and {} subject revocations", revokedJtis.estimatedSize(), revokedBefore.estimatedSize());
+    }
+
+    // Reads revocations made since the previous poll, on this node or any other.
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.poll-interval:PT5S}",
+            initialDelayString = "${app.jwt.revocation.poll-interval:PT5S}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = jtisReadUntil.minus(pollOverlap);
+        long afterId = 0;
+        List<Object[]> page;
+        do {
+            page = tokenRepository.findRevokedJtis(Token.TokenType.ACCESS, since, now, afterId, PageRequest.of(0, pageSize));
+            for (Object[] row : page) {
+                afterId = (Long) row[0];
+                revokeJti(Token.TokenType.ACCESS, (String) row[1], (LocalDateTime) row[2]);
+                jtisReadUntil = latest(jtisReadUntil, (LocalDateTime) row[3]);
+            }
+        } while (page.size() == pageSize);
+
+        for (SubjectRevocation revocation : subjectRevocationRepository.findByRevokedBeforeAfter(subjectsReadUntil.minus(pollOverlap))) {
+            Long organizationId = revocation.getOrganization() != null ? revocation.getOrganization().getId() : null;
+            revokeIssuedUntil(organizationId, revocation.getSubjectType(), revocation.getSubject(), revocation.getRevokedBefore());
+            subjectsReadUntil = latest(subjectsReadUntil, revocation.getRevokedBefore());
+        }
+    }
+
+    // Whether isRevoked alone decides for this token, so that the token store need not be probed.
+    public boolean isAuthoritative(VerifiedToken token) {
+        return enabled && token.getJti() != null && token.isAccessToken();
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        if (token.getJti() != null && revokedJtis.getIfPresent(token.getJti()) != null) {
+            return true;
+        }
+        Date issuedAt = token.getIssuedAt();
+        if (issuedAt == null || revokedBefore.estimatedSize() == 0) {
+            return false;
+        }
+        // iat has second precision, so a token whose iat is the revocation's own second may have been issued
+        // after it and is not matched here; TokenService revokes the ones issued before it by jti.
+        long issuedSecond = TimeUnit.MILLISECONDS.toSeconds(issuedAt.getTime());
+        return issuedSecond < revokedSecond(token.getOrganizationId(), token)
+                || (token.getOrganizationId() != null && issuedSecond < revokedSecond(null, token));
+    }
+
+    // An epoch recorded without organization (e.g. for the super admin) covers the subject's tokens for any organization.
+    private long revokedSecond(Long organizationId, VerifiedToken token) {
+        Long revokedAtMs = revokedBefore.getIfPresent(new SubjectKey(organizationId, token.getSubjectType(), token.getSubject()));
+        return revokedAtMs != null ? TimeUnit.MILLISECONDS.toSeconds(revokedAtMs) : Long.MIN_VALUE;
+    }
+
+    // Refresh tokens are ignored: they are always checked against the token store.
+    public void revokeJti(Token.TokenType tokenType, String jti, LocalDateTime expiresAt) {
+        if (tokenType == Token.TokenType.ACCESS && jti != null && expiresAt != null) {
+            revokedJtis.put(jti, toEpochMilli(expiresAt));
+        }
+    }
+
+    public void revokeIssuedUntil(Long organizationId, String subjectType, String subject, LocalDateTime until) {
+        revokedBefore.asMap().merge(new SubjectKey(organizationId, subjectType, subject), toEpochMilli(until), Math::max);
+    }
+
+    private static LocalDateTime latest(LocalDateTime current, LocalDateTime candidate) {
+        return candidate != null && candidate.isAfter(current) ? candidate : current;
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static <K> Expiry<K, Long> expiringAt(ToLongFunction<Long> expiresAtMs) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(K key, Long value, long currentTime) {
+                return remainingNanos(expiresAtMs.applyAsLong(value));
+            }
+
+            @Override
+            public long expireAfterUpdate(K key, Long value, long currentTime, long currentDuration) {
+                return remainingNanos(expiresAtMs.applyAsLong(value));
+            }
+
+            @Override
+            public long expireAfterRead(K key, Long value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    private static long remainingNanos(long expiresAtMs) {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAtMs - System.currentTimeMillis()));
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class SubjectKey {
+        private final Long organizationId;
+        private final String subjectType;
+        private final String subject;
+    }
+}
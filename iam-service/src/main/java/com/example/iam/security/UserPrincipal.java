@@ -2,6 +2,7 @@ package com.example.iam.security;
 
 import com.example.iam.entity.Role;
 import com.example.iam.entity.User;
+import com.example.iam.repository.RolePermissionName;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,6 +12,8 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -27,22 +30,33 @@ public class UserPrincipal implements UserDetails {
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
     private Set<Role> roles;
+    private Set<String> roleNames;
+    private Set<String> permissionNames;
+    // Null for the super admin.
+    private Long organizationId;
+    // Null in detached copies.
     private User user;
 
-    public Long getOrganizationId() {
-        return user != null ? user.getOrganization().getId() : null;
-    }
+    // grants come from UserRepository#findRolePermissionNamesByUserId, so the user's roles and their
+    // permissions are never walked entity by entity.
+    public static UserPrincipal create(User user, Collection<RolePermissionName> grants) {
+        Set<String> roleNames = new LinkedHashSet<>();
+        Set<String> permissionNames = new LinkedHashSet<>();
+        for (RolePermissionName grant : grants) {
+            roleNames.add(grant.getRoleName());
+            if (grant.getPermissionName() != null) {
+                permissionNames.add(grant.getPermissionName());
+            }
+        }
 
-    public static UserPrincipal create(User user) {
         // Collect permissions from roles
-        List<GrantedAuthority> permissionAuthorities = user.getRoles().stream()
-                .flatMap(role -> role.getPermissions().stream())
-                .map(permission -> new SimpleGrantedAuthority(permission.getName()))
+        List<GrantedAuthority> permissionAuthorities = permissionNames.stream()
+                .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
         
         // Collect role names as authorities
-        List<GrantedAuthority> roleAuthorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName()))
+        List<GrantedAuthority> roleAuthorities = roleNames.stream()
+                .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
 
         // Combine both lists
@@ -58,10 +72,27 @@ public class UserPrincipal implements UserDetails {
                 .password(user.getPassword())
                 .authorities(authorities)
                 .roles(roles) 
+                .roleNames(Collections.unmodifiableSet(roleNames))
+                .permissionNames(Collections.unmodifiableSet(permissionNames))
+                .organizationId(user.getOrganization() != null ? user.getOrganization().getId() : null)
                 .user(user)
                 .build();
     }
 
+    // Copy for caching beyond the request: ids and names only, no password hash and no entities, whose
+    // lazy associations could not be loaded once the session that read them is closed.
+    public UserPrincipal detached() {
+        return UserPrincipal.builder()
+                .id(id)
+                .username(username)
+                .email(email)
+                .authorities(List.copyOf(authorities))
+                .roleNames(roleNames)
+                .permissionNames(permissionNames)
+                .organizationId(organizationId)
+                .build();
+    }
+
     @Override
     public boolean isAccountNonExpired() {
         return true;
@@ -0,0 +1,102 @@
+package com.example.iam.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// A JWT whose signature has been checked, with its claims. JwtAuthenticationFilter stores the one for the
+// request's bearer token as a request attribute; JwtTokenProvider hands it out again for the same token,
+// so the token is parsed, RSA-verified and checked against the token store once per request.
+@Getter
+public final class VerifiedToken {
+
+    public static final String REQUEST_ATTRIBUTE = VerifiedToken.class.getName();
+
+    private final String token;
+    private final Claims claims;
+    private final String subject;
+    private final String subjectType;
+    private final Long organizationId;
+
+    VerifiedToken(String token, Claims claims) {
+        this.token = token;
+        this.claims = claims;
+        this.subject = claims.getSubject();
+        this.subjectType = claims.get(JwtTokenProvider.CLAIM_TYPE, String.class);
+        Number orgId = claims.get(JwtTokenProvider.CLAIM_ORGANIZATION_ID, Number.class);
+        this.organizationId = orgId != null ? orgId.longValue() : null;
+    }
+
+    // The token verified earlier in the current request, or null outside a request or before authentication.
+    public static VerifiedToken current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object verified = attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return verified instanceof VerifiedToken ? (VerifiedToken) verified : null;
+    }
+
+    // Null for tokens issued before the jti claim was added.
+    public String getJti() {
+        return claims.getId();
+    }
+
+    public Date getIssuedAt() {
+        return claims.getIssuedAt();
+    }
+
+    // Names from the permissions claim; empty for tokens carrying the compact bitset instead (see
+    // AuthorizationModelRegistry#permissionNames).
+    public Set<String> getPermissions() {
+        Set<String> permissions = toStrings(claims.get(JwtTokenProvider.CLAIM_PERMISSIONS));
+        return permissions != null ? permissions : Collections.emptySet();
+    }
+
+    // Base64url bitset over the organization's PermissionDictionary; null unless issued with the compact encoding.
+    public String getPermissionBits() {
+        return claims.get(JwtTokenProvider.CLAIM_PERMISSION_BITS, String.class);
+    }
+
+    // Version of the dictionary the bitset was encoded with.
+    public String getPermissionDictionaryVersion() {
+        return claims.get(JwtTokenProvider.CLAIM_PERMISSION_DICTIONARY, String.class);
+    }
+
+    // False for refresh tokens and for tokens issued before the token_use claim was added.
+    public boolean isAccessToken() {
+        return JwtTokenProvider.TOKEN_USE_ACCESS.equals(claims.get(JwtTokenProvider.CLAIM_TOKEN_USE, String.class));
+    }
+
+    // Refresh token family; null for client tokens and tokens issued before families were introduced.
+    public String getFamilyId() {
+        return claims.get(JwtTokenProvider.CLAIM_FAMILY, String.class);
+    }
+
+    // How many times the family has been rotated when this refresh token was issued.
+    public int getRotation() {
+        Number rotation = claims.get(JwtTokenProvider.CLAIM_ROTATION, Number.class);
+        return rotation != null ? rotation.intValue() : 0;
+    }
+
+    // Null when the token predates the roles claim.
+    public Set<String> getRoles() {
+        return toStrings(claims.get(JwtTokenProvider.CLAIM_ROLES));
+    }
+
+    private static Set<String> toStrings(Object claim) {
+        if (claim instanceof Collection) {
+            return ((Collection<?>) claim).stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.toSet());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.iam.security;
+
+import com.example.iam.authorization.TokenRevocationEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Tokens that passed signature, expiry and token-store checks, keyed by TokenDigest. An entry lives until
+// the token's exp claim or for max-ttl, whichever is sooner, so a revocation this node did not see is
+// picked up by the next full verification. JwtTokenProvider checks TokenRevocationRegistry on every hit,
+// which covers revocations of all of a subject's tokens without scanning the cache.
+@Component
+public class VerifiedTokenCache {
+
+    @Value("${app.jwt.verified-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.jwt.verified-cache.max-size:100000}")
+    private long maxSize;
+
+    @Value("${app.jwt.verified-cache.max-ttl:PT30S}")
+    private Duration maxTtl;
+
+    private Cache<String, VerifiedToken> cache;
+    // Bumped on every revocation so a verification that raced with one is not cached.
+    private final AtomicLong revocations = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        long maxTtlNanos = maxTtl.toNanos();
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+                        return Math.min(remainingNanos(token), maxTtlNanos);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+                        return Math.min(remainingNanos(token), maxTtlNanos);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public VerifiedToken get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        VerifiedToken verified = cache.getIfPresent(TokenDigest.of(token));
+        return verified != null && verified.getToken().equals(token) ? verified : null;
+    }
+
+    // Read before verifying against the token store and pass to put afterwards.
+    public long generation() {
+        return revocations.get();
+    }
+
+    public void put(VerifiedToken verified, long generation) {
+        // Refresh tokens are presented once per rotation and must always reach the token store.
+        if (!enabled || !verified.isAccessToken() || verified.getClaims().getExpiration() == null) {
+            return;
+        }
+        String digest = TokenDigest.of(verified.getToken());
+        cache.put(digest, verified);
+        if (revocations.get() != generation) {
+            cache.invalidate(digest);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokenRevocation(TokenRevocationEvent event) {
+        revocations.incrementAndGet();
+        if (event.getToken() != null) {
+            cache.invalidate(TokenDigest.of(event.getToken()));
+        }
+    }
+
+    private static long remainingNanos(VerifiedToken token) {
+        Date expiration = token.getClaims().getExpiration();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiration.getTime() - System.currentTimeMillis()));
+    }
+}
@@ -1,16 +1,27 @@
 package com.example.iam.service;
 
+import com.example.iam.authorization.AuthorizationChangeEvent;
+import com.example.iam.authorization.SingleFlight;
 import com.example.iam.dto.SignupRequest;
 import com.example.iam.dto.TokenResponse;
 import com.example.iam.entity.Organization;
 import com.example.iam.entity.User;
+import com.example.iam.exception.InvalidTokenException;
 import com.example.iam.exception.ResourceNotFoundException;
 import com.example.iam.repository.OrganizationRepository;
 import com.example.iam.repository.UserRepository;
 import com.example.iam.security.JwtTokenProvider;
 import com.example.iam.security.OrganizationContextHolder;
+import com.example.iam.security.TokenDigest;
 import com.example.iam.security.UserPrincipal;
+import com.example.iam.security.VerifiedToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -19,10 +30,14 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -34,6 +49,28 @@ public class AuthService {
     private final JwtTokenProvider tokenProvider;
     private final AuthenticationManager authenticationManager;
     private final UserDetailsService userDetailsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TokenService tokenService;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.jwt.refresh-token.reuse-grace:PT10S}")
+    private Duration reuseGrace;
+
+    private TransactionTemplate transactionTemplate;
+    private SingleFlight<String, TokenResponse> refreshFlight;
+    // Refresh results by TokenDigest of the presented refresh token, kept for the grace window.
+    private Cache<String, TokenResponse> recentRefreshes;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        refreshFlight = new SingleFlight<>(meterRegistry, "iam.auth.refreshes");
+        recentRefreshes = Caffeine.newBuilder()
+                .expireAfterWrite(reuseGrace)
+                .maximumSize(10_000)
+                .build();
+    }
 
     @Transactional
     public User registerUser(SignupRequest signupRequest) {
@@ -64,7 +101,9 @@ public class AuthService {
         // The new EntityListener will handle setting the organization
         
         log.info("Registering new user {} in organization {}", user.getUsername(), organizationId);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(AuthorizationChangeEvent.of(AuthorizationChangeEvent.Type.USER, saved));
+        return saved;
     }
 
     @Transactional
@@ -91,31 +130,78 @@ public class AuthService {
         );
 
         // Generate tokens with organization context
-        String accessToken = tokenProvider.generateAccessToken(authentication, organizationId);
-        String refreshToken = tokenProvider.generateRefreshToken(authentication, organizationId);
+        String familyId = JwtTokenProvider.newFamilyId();
+        String accessToken = tokenProvider.generateAccessToken(authentication, organizationId, familyId);
+        String refreshToken = tokenProvider.generateRefreshToken(authentication, organizationId, familyId, 0);
 
         log.info("User {} authenticated successfully in organization {}", username, organization.getName());
         return new TokenResponse(accessToken, refreshToken);
     }
     
-@Transactional
+    // Parallel refreshes of one token (several tabs, client retries) share a single rotation, and repeats
+    // within app.jwt.refresh-token.reuse-grace get the same pair back instead of rotating again and
+    // revoking each other's tokens. A rotated-away refresh token presented after that is treated as
+    // replayed and its whole family is revoked.
     public TokenResponse refreshToken(String refreshToken) {
         if (!StringUtils.hasText(refreshToken)) {
             throw new IllegalArgumentException("Refresh token cannot be empty");
         }
+        String digest = TokenDigest.of(refreshToken);
+        TokenResponse recent = recentRefreshes.getIfPresent(digest);
+        if (recent != null) {
+            return recent;
+        }
+        // Reuse is handled inside the flight, so coalesced callers of a replayed token revoke its family once.
+        return refreshFlight.execute(digest, () -> {
+            TokenResponse rotated;
+            try {
+                rotated = transactionTemplate.execute(status -> rotate(refreshToken));
+            } catch (InvalidTokenException e) {
+                revokeFamilyOnReuse(refreshToken);
+                throw e;
+            }
+            recentRefreshes.put(digest, rotated);
+            return rotated;
+        });
+    }
 
-        if (!tokenProvider.validateToken(refreshToken)) {
-            throw new IllegalArgumentException("Invalid refresh token");
+    private void revokeFamilyOnReuse(String refreshToken) {
+        VerifiedToken presented;
+        try {
+            presented = tokenProvider.verifySignature(refreshToken);
+        } catch (InvalidTokenException e) {
+            // Forged or expired rather than replayed
+            return;
+        }
+        if (presented.getFamilyId() == null) {
+            return;
         }
+        int revoked = tokenService.revokeFamily(presented.getFamilyId(), presented.getOrganizationId(), presented.getSubject());
+        if (revoked > 0) {
+            log.warn("Reuse of rotated refresh token (family {}, rotation {}) for user {}; revoked {} tokens of the family",
+                    presented.getFamilyId(), presented.getRotation(), presented.getSubject(), revoked);
+        }
+    }
 
-        String username = tokenProvider.getSubjectFromJWT(refreshToken);
-        Long organizationId = tokenProvider.getOrganizationIdFromJWT(refreshToken);
-        String subjectType = tokenProvider.getSubjectTypeFromJWT(refreshToken);
+    private TokenResponse rotate(String refreshToken) {
+        VerifiedToken verifiedToken = tokenProvider.verify(refreshToken);
+
+        String username = verifiedToken.getSubject();
+        Long organizationId = verifiedToken.getOrganizationId();
+        String subjectType = verifiedToken.getSubjectType();
 
         log.info("Refreshing token for user {} in organization {}", username, organizationId);
-        if (!"user".equals(subjectType)) {
+        if (!"user".equals(subjectType) || verifiedToken.isAccessToken()) {
             throw new IllegalArgumentException("Invalid token type for refresh");
         }
+        // A refresh token that is still stored unrevoked but older than its family's latest rotation was
+        // replayed; failing here revokes the family like any other reuse.
+        if (verifiedToken.getFamilyId() != null) {
+            Integer latestRotation = tokenService.findLatestRotation(verifiedToken.getFamilyId());
+            if (latestRotation != null && verifiedToken.getRotation() < latestRotation) {
+                throw new InvalidTokenException("Refresh token has been rotated");
+            }
+        }
 
         // Verify organization exists and is active
         Organization organization = organizationRepository.findById(organizationId)
@@ -152,8 +238,11 @@ public class AuthService {
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
             // Tạo token mới
-            String newAccessToken = tokenProvider.generateAccessToken(authentication, organizationId);
-            String newRefreshToken = tokenProvider.generateRefreshToken(authentication, organizationId);
+            // Tokens from before refresh token families start a family here.
+            String familyId = verifiedToken.getFamilyId() != null ? verifiedToken.getFamilyId() : JwtTokenProvider.newFamilyId();
+            String newAccessToken = tokenProvider.generateAccessToken(authentication, organizationId, familyId);
+            String newRefreshToken = tokenProvider.generateRefreshToken(authentication, organizationId, familyId,
+                    verifiedToken.getRotation() + 1);
 
             log.info("Token refreshed for user {} in organization {}", username, organization.getName());
             return new TokenResponse(newAccessToken, newRefreshToken);
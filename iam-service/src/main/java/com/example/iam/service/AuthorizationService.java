@@ -1,30 +1,38 @@
 package com.example.iam.service;
 
-import com.example.iam.entity.*;
-import com.example.iam.entity.Resource;
-import com.example.iam.repository.ClientApplicationRepository;
-import com.example.iam.repository.PolicyRepository;
-import com.example.iam.repository.ResourceRepository;
-import com.example.iam.repository.UserRepository;
-import com.example.iam.security.ClientPrincipal;
+import com.example.iam.authorization.AuthorizationModel;
+import com.example.iam.authorization.AuthorizationModelRegistry;
+import com.example.iam.authorization.DecisionCache;
+import com.example.iam.authorization.PermissionBits;
+import com.example.iam.authorization.PolicyEntry;
+import com.example.iam.authorization.PolicyIndex;
+import com.example.iam.authorization.SingleFlight;
+import com.example.iam.authorization.ResourceEntry;
+import com.example.iam.authorization.SubjectEntry;
+import com.example.iam.authorization.condition.ConditionContext;
+import com.example.iam.authorization.condition.PolicyCondition;
+import com.example.iam.dto.BatchAuthorizationRequest;
+import com.example.iam.entity.Policy;
 import com.example.iam.security.JwtTokenProvider;
-import com.example.iam.security.UserPrincipal;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.iam.security.TokenDigest;
+import com.example.iam.security.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.time.LocalDate;
-import java.time.LocalTime;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -33,121 +41,109 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AuthorizationService {
 
-    private final ResourceRepository resourceRepository;
+    private final AuthorizationModelRegistry modelRegistry;
     private final JwtTokenProvider tokenProvider;
-    private final UserRepository userRepository;
-    private final PolicyRepository policyRepository;
-    private final ClientApplicationRepository clientApplicationRepository;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DecisionCache decisionCache;
+    private final MeterRegistry meterRegistry;
 
-    // Helper class to hold context derived from the token
-    private static class AuthorizationContext {
-        final Long organizationId;
-        final Set<String> roles;
+    // When set, the RBAC step, role conditions and role policies use the permissions and roles signed into
+    // user tokens; the model is only consulted for the subject's own and scope policies.
+    @Value("${app.authorization.stateless:false}")
+    private boolean stateless;
 
-        AuthorizationContext(Long organizationId, Set<String> roles) {
-            this.organizationId = organizationId;
-            this.roles = (roles != null) ? roles : Collections.emptySet();
-        }
+    private SingleFlight<CheckKey, Boolean> inFlightChecks;
+
+    @PostConstruct
+    public void init() {
+        inFlightChecks = new SingleFlight<>(meterRegistry, "iam.authorization.checks");
     }
 
+    // Concurrent identical checks (same token, path, method and client address) share one token
+    // validation and decision instead of each repeating it.
     public boolean checkPermission(String token, String path, String method) {
-        if (token == null || !tokenProvider.validateToken(token)) {
+        if (token == null) {
             return false;
         }
-        log.info("All resources: {}", resourceRepository.findAll());
-
-        List<Resource> matchedResources = resourceRepository.findAll().stream()
-                .filter(r -> isPathMatch(path, r.getPath()) && r.getMethod().name().equalsIgnoreCase(method))
-                .collect(Collectors.toList());
+        return inFlightChecks.execute(new CheckKey(TokenDigest.of(token), path, method, getCurrentClientIp()), () -> {
+            SubjectContext subjectContext = resolveToken(token);
+            return subjectContext != null && decide(subjectContext, path, method);
+        });
+    }
 
-        if (matchedResources.isEmpty()) {
-            log.debug("No resource configured for path {} and method {}. Access granted by default.", path, method);
-            return true;
+    // Evaluates many (path, method) pairs for one token. The token is validated and the subject,
+    // roles, permissions and policies are resolved at most once; decisions are returned in input order.
+    public boolean[] checkPermissions(String token, List<BatchAuthorizationRequest.Check> checks) {
+        boolean[] decisions = new boolean[checks != null ? checks.size() : 0];
+        SubjectContext subjectContext = resolveToken(token);
+        if (subjectContext == null) {
+            return decisions;
         }
+        for (int i = 0; i < decisions.length; i++) {
+            BatchAuthorizationRequest.Check check = checks.get(i);
+            decisions[i] = check != null && decide(subjectContext, check.getPath(), check.getMethod());
+        }
+        return decisions;
+    }
 
+    private SubjectContext resolveToken(String token) {
+        if (token == null) {
+            return null;
+        }
         // --- All context is now derived directly from the token ---
-        String subject = tokenProvider.getSubjectFromJWT(token);
-        String subjectTypeStr = tokenProvider.getSubjectTypeFromJWT(token);
-        Long organizationId = tokenProvider.getOrganizationIdFromJWT(token);
+        VerifiedToken verifiedToken = tokenProvider.verify(token);
+        return new SubjectContext(verifiedToken, modelRegistry.current(verifiedToken.getOrganizationId()));
+    }
 
-        // --- Determine required actions (permissions) from the matched resources ---
-        Set<String> requiredActions = matchedResources.stream()
-                .flatMap(resource -> resource.getPermissions().stream())
-                .map(Permission::getName)
-                .collect(Collectors.toSet());
+    // Token validation always runs; only the decision for an already validated token is cached.
+    private boolean decide(SubjectContext subjectContext, String path, String method) {
+        DecisionCache.Key key = subjectContext.cacheKey(path, method);
+        Boolean cached = decisionCache.get(key, this::getCurrentClientIp);
+        if (cached != null) {
+            return cached;
+        }
+        subjectContext.decision = DecisionCache.Decision.UNCONDITIONAL;
+        boolean allowed = evaluate(subjectContext, path, method);
+        decisionCache.put(key, this::getCurrentClientIp, allowed, subjectContext.decision);
+        return allowed;
+    }
 
-        Policy.SubjectType subjectType;
-        Long subjectPk;
-        Set<String> userRoles = Collections.emptySet();
-        boolean hasRequiredPermissions = false;
+    private boolean evaluate(SubjectContext subjectContext, String path, String method) {
+        List<ResourceEntry> matchedResources = subjectContext.model.getResources().match(path, method);
 
-        if ("user".equalsIgnoreCase(subjectTypeStr)) {
-            subjectType = Policy.SubjectType.USER;
-            User user = userRepository.findByUsernameWithRoles(subject)
-                    .orElse(null);
-            if (user == null) {
-                log.warn("User '{}' from token not found in database.", subject);
-                return false;
-            }
-            subjectPk = user.getId();
-            userRoles = user.getRoles().stream().map(Role::getName).collect(Collectors.toSet());
+        if (matchedResources.isEmpty()) {
+            log.debug("No resource configured for path {} and method {}. Access granted by default.", path, method);
+            return true;
+        }
 
-            // Step 1: Coarse-grained RBAC check
-            if (requiredActions.isEmpty()) {
-                hasRequiredPermissions = true;
-            } else {
-                Set<String> userPermissions = user.getRoles().stream()
-                        .flatMap(role -> role.getPermissions().stream())
-                        .map(Permission::getName)
-                        .collect(Collectors.toSet());
-                if (!Collections.disjoint(userPermissions, requiredActions)) {
-                    hasRequiredPermissions = true;
-                }
-            }
-        } else if ("client".equalsIgnoreCase(subjectTypeStr)) {
-            subjectType = Policy.SubjectType.CLIENT;
-            ClientApplication client = clientApplicationRepository.findByClientId(subject)
-                    .orElse(null);
-            if (client == null) {
-                log.warn("Client '{}' from token not found in database.", subject);
-                return false;
-            }
-            subjectPk = client.getId();
-            System.out.println("Client: " + client);
-            // Clients bypass RBAC and go straight to policy checks
-            hasRequiredPermissions = true;
-        } else {
-            log.warn("Unknown subject type '{}' in token.", subjectTypeStr);
+        if (!subjectContext.load()) {
             return false;
         }
 
-        if (!hasRequiredPermissions) {
-            log.warn("Initial permission check failed for subject: {}", subject);
+        // Step 1: Coarse-grained RBAC check. Clients bypass RBAC and go straight to policy checks
+        if (subjectContext.subjectType == Policy.SubjectType.USER
+                && !ResourceEntry.grantsAnyRequired(matchedResources, subjectContext.permissionBits)) {
+            log.warn("Initial permission check failed for subject: {}", subjectContext.subject);
             return false;
         }
 
-        log.debug("Initial permission check passed. Proceeding to policy evaluation for subject {}.", subject);
+        log.debug("Initial permission check passed. Proceeding to policy evaluation for subject {}.", subjectContext.subject);
 
-        // Step 2: Fine-grained ABAC (Policy) check
-        AuthorizationContext authContext = new AuthorizationContext(organizationId, userRoles);
-        List<Long> resourceIds = matchedResources.stream().map(BaseEntity::getId).collect(Collectors.toList());
-        List<Policy> relevantPolicies = policyRepository.findBySubjectTypeAndSubjectId(subjectType, subjectPk)
-                .stream()
-                .filter(p -> resourceIds.contains(p.getResource().getId()))
-                .filter(p -> requiredActions.contains(p.getAction())) // Correctly check against resource actions
-                .collect(Collectors.toList());
+        // Step 2: Fine-grained ABAC (Policy) check over the (resource, action) buckets that can apply
+        List<PolicyIndex.Bucket> relevantPolicies = relevantPolicies(subjectContext.policies, matchedResources);
 
         if (relevantPolicies.isEmpty()) {
             // If no policies are found, the initial RBAC check is the final word.
-            log.debug("No specific policies found for subjectId {}. Access granted based on initial permission check.", subjectPk);
+            log.debug("No specific policies found for subjectId {}. Access granted based on initial permission check.", subjectContext.subjectPk);
             return true;
         }
 
+        ConditionContext conditionContext = subjectContext.conditionContext();
+        subjectContext.decision = dependencies(relevantPolicies, conditionContext);
+
         // Evaluate DENY policies first
-        for (Policy policy : relevantPolicies) {
-            if (policy.getEffect() == Policy.Effect.DENY) {
-                if (evaluateConditions(policy.getConditionJson(), authContext)) {
+        for (PolicyIndex.Bucket bucket : relevantPolicies) {
+            for (PolicyEntry policy : bucket.getDeny()) {
+                if (policy.getCondition().test(conditionContext)) {
                     log.info("Access denied by policy ID {}", policy.getId());
                     return false; // Explicit deny
                 }
@@ -155,9 +151,9 @@ public class AuthorizationService {
         }
 
         // Evaluate ALLOW policies
-        for (Policy policy : relevantPolicies) {
-            if (policy.getEffect() == Policy.Effect.ALLOW) {
-                if (evaluateConditions(policy.getConditionJson(), authContext)) {
+        for (PolicyIndex.Bucket bucket : relevantPolicies) {
+            for (PolicyEntry policy : bucket.getAllow()) {
+                if (policy.getCondition().test(conditionContext)) {
                     log.info("Access allowed by policy ID {}", policy.getId());
                     return true; // Explicit allow
                 }
@@ -168,197 +164,152 @@ public class AuthorizationService {
         return false;
     }
 
-    private boolean isPathMatch(String requestPath, String resourcePath) {
-        String pattern = resourcePath
-                .replaceAll("\\{.*?\\}", "[^/]+")
-                .replaceAll("/", "\\\\/");
-        pattern = "^" + pattern + "$";
-        return requestPath.matches(pattern);
-    }
-
-    private boolean evaluateConditions(String conditionJson, AuthorizationContext context) {
-        if (!StringUtils.hasText(conditionJson)) {
-            return true; // No conditions means the policy applies
+    // Buckets for every matched resource and every action (permission) required by any matched resource.
+    private static List<PolicyIndex.Bucket> relevantPolicies(Map<Long, Map<String, PolicyIndex.Bucket>> policies,
+                                                             List<ResourceEntry> matchedResources) {
+        if (policies.isEmpty()) {
+            return Collections.emptyList();
         }
-        try {
-            log.debug("Evaluating conditions: {}", conditionJson);
-            JsonNode conditions = objectMapper.readTree(conditionJson);
-            if (conditions.isObject()) {
-                return evaluateObjectCondition(conditions, context);
-            } else if (conditions.isArray()) {
-                return evaluateArrayCondition(conditions, context);
+        Set<String> requiredActions = matchedResources.size() == 1
+                ? matchedResources.get(0).getPermissions()
+                : matchedResources.stream()
+                        .flatMap(resource -> resource.getPermissions().stream())
+                        .collect(Collectors.toSet());
+        List<PolicyIndex.Bucket> buckets = new ArrayList<>(2);
+        for (ResourceEntry resource : matchedResources) {
+            Map<String, PolicyIndex.Bucket> byAction = policies.get(resource.getId());
+            if (byAction == null) {
+                continue;
+            }
+            for (String action : requiredActions) {
+                PolicyIndex.Bucket bucket = byAction.get(action);
+                if (bucket != null) {
+                    buckets.add(bucket);
+                }
             }
-            log.warn("Unknown condition format");
-            return false;
-        } catch (Exception e) {
-            log.error("Error evaluating conditions: {}", e.getMessage(), e);
-            return false;
-        }
-    }
-
-    private boolean evaluateObjectCondition(JsonNode condition, AuthorizationContext context) {
-        String type = condition.path("type").asText();
-        String operator = condition.path("operator").asText();
-        JsonNode value = condition.path("value");
-
-        switch (type) {
-            case "time":
-                return evaluateTimeCondition(operator, value);
-            case "date":
-                return evaluateDateCondition(operator, value);
-            case "ip":
-                return evaluateIpCondition(operator, value);
-            case "role":
-                return evaluateRoleCondition(operator, value, context);
-            case "organization":
-                return evaluateOrganizationCondition(operator, value, context);
-            default:
-                log.warn("Unknown condition type: {}", type);
-                return false;
         }
+        return buckets;
     }
 
-    private boolean evaluateArrayCondition(JsonNode conditions, AuthorizationContext context) {
-        for (JsonNode condition : conditions) {
-            if (!evaluateObjectCondition(condition, context)) {
-                return false; // Short circuit if any condition fails
+    // The decision depends on every condition in the relevant buckets, not only on those evaluated before
+    // the first match: any of them changing could change which policy matches first.
+    private static DecisionCache.Decision dependencies(List<PolicyIndex.Bucket> buckets, ConditionContext conditionContext) {
+        LocalDateTime nextChange = null;
+        boolean clientIpDependent = false;
+        for (PolicyIndex.Bucket bucket : buckets) {
+            for (PolicyEntry[] policies : new PolicyEntry[][] {bucket.getDeny(), bucket.getAllow()}) {
+                for (PolicyEntry policy : policies) {
+                    PolicyCondition condition = policy.getCondition();
+                    nextChange = PolicyCondition.earliest(nextChange, condition.nextChange(conditionContext));
+                    clientIpDependent |= condition.dependsOnClientIp();
+                }
             }
         }
-        return true;
+        return DecisionCache.Decision.of(conditionContext.getDateTime(), nextChange, clientIpDependent);
     }
 
-    private boolean evaluateTimeCondition(String operator, JsonNode value) {
-        LocalTime currentTime = LocalTime.now();
-        try {
-            switch (operator) {
-                case "between":
-                    return currentTime.isAfter(LocalTime.parse(value.path("start").asText())) &&
-                           currentTime.isBefore(LocalTime.parse(value.path("end").asText()));
-                case "before":
-                    return currentTime.isBefore(LocalTime.parse(value.asText()));
-                case "after":
-                    return currentTime.isAfter(LocalTime.parse(value.asText()));
-                default:
-                    log.warn("Unknown time operator: {}", operator);
-                    return false;
-            }
-        } catch (Exception e) {
-            log.error("Error evaluating time condition: {}", e.getMessage(), e);
-            return false;
-        }
+    // The client address is part of the key because a decision may depend on an IP condition. The token
+    // is held as its TokenDigest so the key neither retains nor hashes the whole bearer token.
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class CheckKey {
+        private final String tokenDigest;
+        private final String path;
+        private final String method;
+        private final String clientIp;
     }
 
-    private boolean evaluateDateCondition(String operator, JsonNode value) {
-        LocalDate currentDate = LocalDate.now();
-        try {
-            switch (operator) {
-                case "between":
-                    return currentDate.isAfter(LocalDate.parse(value.path("start").asText())) &&
-                           currentDate.isBefore(LocalDate.parse(value.path("end").asText()));
-                case "before":
-                    return currentDate.isBefore(LocalDate.parse(value.asText()));
-                case "after":
-                    return currentDate.isAfter(LocalDate.parse(value.asText()));
-                default:
-                    log.warn("Unknown date operator: {}", operator);
-                    return false;
-            }
-        } catch (Exception e) {
-            log.error("Error evaluating date condition: {}", e.getMessage(), e);
-            return false;
+    // Subject data shared by all checks made with one token. Everything is read from the organization's
+    // model snapshot taken when the token was resolved, so all checks of a batch see the same state.
+    private final class SubjectContext {
+        final VerifiedToken token;
+        final AuthorizationModel model;
+        final String subject;
+        final String subjectTypeStr;
+        final Long organizationId;
+
+        boolean loaded;
+        boolean known;
+        SubjectEntry entry;
+        Policy.SubjectType subjectType;
+        Long subjectPk;
+        Set<String> roles = Collections.emptySet();
+        long[] permissionBits = PermissionBits.EMPTY;
+        Map<Long, Map<String, PolicyIndex.Bucket>> policies = Collections.emptyMap();
+        ConditionContext conditionContext;
+        long issuedAt = -1;
+        DecisionCache.Decision decision;
+
+        SubjectContext(VerifiedToken token, AuthorizationModel model) {
+            this.token = token;
+            this.model = model;
+            this.subject = token.getSubject();
+            this.subjectTypeStr = token.getSubjectType();
+            this.organizationId = token.getOrganizationId();
         }
-    }
 
-    private boolean evaluateIpCondition(String operator, JsonNode value) {
-        String clientIp = getCurrentClientIp();
-        try {
-            switch (operator) {
-                case "in":
-                    for (JsonNode ip : value) {
-                        if (isIpInRange(clientIp, ip.asText())) return true;
-                    }
-                    return false;
-                case "not_in":
-                    for (JsonNode ip : value) {
-                        if (isIpInRange(clientIp, ip.asText())) return false;
-                    }
-                    return true;
-                default:
-                    log.warn("Unknown IP operator: {}", operator);
-                    return false;
+        boolean load() {
+            if (!loaded) {
+                loaded = true;
+                known = loadSubject();
             }
-        } catch (Exception e) {
-            log.error("Error evaluating IP condition: {}", e.getMessage(), e);
-            return false;
+            return known;
         }
-    }
 
-    private boolean evaluateRoleCondition(String operator, JsonNode value, AuthorizationContext context) {
-        try {
-            switch (operator) {
-                case "has_any":
-                case "has":
-                    for (JsonNode role : value) {
-                        if (context.roles.contains(role.asText())) return true;
-                    }
-                    return false;
-                case "has_all":
-                    for (JsonNode role : value) {
-                        if (!context.roles.contains(role.asText())) return false;
-                    }
-                    return true;
-                default:
-                    log.warn("Unknown role operator: {}", operator);
-                    return false;
+        ConditionContext conditionContext() {
+            if (conditionContext == null) {
+                conditionContext = ConditionContext.of(organizationId, roles, getCurrentClientIp());
             }
-        } catch (Exception e) {
-            log.error("Error evaluating role condition: {}", e.getMessage(), e);
-            return false;
+            return conditionContext;
         }
-    }
 
-    private boolean evaluateOrganizationCondition(String operator, JsonNode value, AuthorizationContext context) {
-        if (context.organizationId == null) return false;
-        try {
-            switch (operator) {
-                case "is":
-                    return context.organizationId.equals(value.asLong());
-                case "in":
-                    for (JsonNode orgId : value) {
-                        if (context.organizationId.equals(orgId.asLong())) return true;
-                    }
-                    return false;
-                default:
-                    log.warn("Unknown organization operator: {}", operator);
-                    return false;
+        DecisionCache.Key cacheKey(String path, String method) {
+            if (issuedAt < 0) {
+                // In stateless mode the decision also depends on the roles and permissions signed into this token.
+                Date issued = stateless ? token.getIssuedAt() : null;
+                issuedAt = issued != null ? issued.getTime() : 0;
             }
-        } catch (Exception e) {
-            log.error("Error evaluating organization condition: {}", e.getMessage(), e);
-            return false;
+            return new DecisionCache.Key(organizationId, model.getVersion(), subjectTypeStr, subject, issuedAt, path, method);
         }
-    }
 
-    private boolean isIpInRange(String ip, String cidr) {
-        try {
-            String[] parts = cidr.split("/");
-            long ipLong = ipToLong(ip);
-            long cidrLong = ipToLong(parts[0]);
-            long mask = -1L << (32 - Integer.parseInt(parts[1]));
-            return (ipLong & mask) == (cidrLong & mask);
-        } catch (Exception e) {
-            log.error("Error checking IP range for ip {} and cidr {}: {}", ip, cidr, e.getMessage());
-            return false;
+        private boolean loadSubject() {
+            if ("user".equalsIgnoreCase(subjectTypeStr)) {
+                entry = model.findUser(subject);
+                if (stateless && loadFromClaims()) {
+                    return true;
+                }
+            } else if ("client".equalsIgnoreCase(subjectTypeStr)) {
+                entry = model.findClient(subject);
+            } else {
+                log.warn("Unknown subject type '{}' in token.", subjectTypeStr);
+                return false;
+            }
+            if (entry == null) {
+                log.warn("Subject '{}' of type '{}' from token not found in organization {}.", subject, subjectTypeStr, organizationId);
+                return false;
+            }
+            subjectType = entry.getType();
+            subjectPk = entry.getId();
+            roles = entry.getRoles();
+            permissionBits = entry.getPermissionBits();
+            policies = model.policiesFor(entry);
+            return true;
         }
-    }
 
-    private long ipToLong(String ip) {
-        String[] octets = ip.split("\\.");
-        long result = 0;
-        for (int i = 0; i < 4; i++) {
-            result <<= 8;
-            result |= Long.parseLong(octets[i]);
+        // Role policies follow the claimed roles too, so RBAC, role conditions and role policies agree within
+        // one decision. Tokens issued before the roles claim existed fall back to the model.
+        private boolean loadFromClaims() {
+            Set<String> claimedRoles = token.getRoles();
+            if (claimedRoles == null) {
+                return false;
+            }
+            subjectType = Policy.SubjectType.USER;
+            subjectPk = entry != null ? entry.getId() : null;
+            roles = claimedRoles;
+            permissionBits = modelRegistry.permissionBits(model, token);
+            policies = model.policiesFor(entry, claimedRoles);
+            return true;
         }
-        return result;
     }
 
     private String getCurrentClientIp() {
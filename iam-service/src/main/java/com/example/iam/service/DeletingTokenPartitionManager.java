@@ -0,0 +1,30 @@
+package com.example.iam.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+
+// Fallback for databases without declarative partitioning (H2 in tests and local runs): emulates
+// dropping day partitions by deleting tokens that expired before the retention cutoff in batches.
+@Slf4j
+@RequiredArgsConstructor
+public class DeletingTokenPartitionManager implements TokenPartitionManager {
+
+    private final TokenService tokenService;
+    private final int retentionDays;
+    private final int batchSize;
+
+    @Override
+    public void maintain() {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = tokenService.deleteExpiredBatch(LocalDate.now().minusDays(retentionDays).atStartOfDay(), batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        if (total > 0) {
+            log.info("Deleted {} tokens expired more than {} days ago", total, retentionDays);
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.iam.service;
 
+import com.example.iam.authorization.AuthorizationChangeEvent;
+import com.example.iam.authorization.condition.PolicyCondition;
+import com.example.iam.authorization.condition.PolicyConditionCache;
+import com.example.iam.authorization.condition.PolicyConditionCompiler;
 import com.example.iam.dto.PolicyDTO;
 import com.example.iam.entity.Policy;
 import com.example.iam.entity.Resource;
@@ -17,6 +21,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -43,6 +48,9 @@ public class PolicyService {
     private final ResourceRepository resourceRepository;
     private final UserService userService;
     private final ClientApplicationRepository clientApplicationRepository;
+    private final PolicyConditionCompiler conditionCompiler;
+    private final PolicyConditionCache conditionCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<PolicyDTO> getAllPolicies() {
         return policyRepository.findAll().stream()
@@ -58,7 +66,7 @@ public class PolicyService {
 
     @Transactional
     public PolicyDTO createPolicy(PolicyDTO dto) {
-        validatePolicy(dto);
+        PolicyCondition condition = validatePolicy(dto);
         
         // Check if policy already exists
         Resource resource = resourceRepository.findById(dto.getResourceId())
@@ -72,13 +80,15 @@ public class PolicyService {
             throw new IllegalArgumentException("Policy already exists for this subject, resource and action");
         }
 
-        Policy policy = policyMapper.toEntity(dto);
-        return policyMapper.toDTO(policyRepository.save(policy));
+        Policy policy = policyRepository.save(policyMapper.toEntity(dto));
+        conditionCache.put(policy, condition);
+        eventPublisher.publishEvent(AuthorizationChangeEvent.of(AuthorizationChangeEvent.Type.POLICY, policy));
+        return policyMapper.toDTO(policy);
     }
 
     @Transactional
     public PolicyDTO updatePolicy(Long id, PolicyDTO dto) {
-        validatePolicy(dto);
+        PolicyCondition condition = validatePolicy(dto);
         
         Policy existingPolicy = policyRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Policy not found with id: " + id));
@@ -91,16 +101,20 @@ public class PolicyService {
                 .orElseThrow(() -> new ResourceNotFoundException("Resource not found with id: " + dto.getResourceId()));
         existingPolicy.setResource(resource);
 
-        Policy updatedPolicy = policyRepository.save(existingPolicy);
+        // Flush so updatedAt, which versions the compiled condition, is final before caching it
+        Policy updatedPolicy = policyRepository.saveAndFlush(existingPolicy);
+        conditionCache.put(updatedPolicy, condition);
+        eventPublisher.publishEvent(AuthorizationChangeEvent.of(AuthorizationChangeEvent.Type.POLICY, updatedPolicy));
         return policyMapper.toDTO(updatedPolicy);
     }
 
     @Transactional
     public void deletePolicy(Long id) {
-        if (!policyRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Policy not found with id: " + id);
-        }
-        policyRepository.deleteById(id);
+        Policy policy = policyRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Policy not found with id: " + id));
+        policyRepository.delete(policy);
+        conditionCache.evict(id);
+        eventPublisher.publishEvent(AuthorizationChangeEvent.of(AuthorizationChangeEvent.Type.POLICY, policy));
     }
 
     public List<PolicyDTO> getPoliciesBySubject(Policy.SubjectType subjectType, Long subjectId) {
@@ -528,7 +542,7 @@ public class PolicyService {
         return null;
     }
 
-    private void validatePolicy(PolicyDTO dto) {
+    private PolicyCondition validatePolicy(PolicyDTO dto) {
         if (dto.getSubjectId() == null) {
             throw new IllegalArgumentException("Subject ID is required");
         }
@@ -560,13 +574,7 @@ public class PolicyService {
             throw new IllegalArgumentException("Effect is required");
         }
         
-        // Validate condition JSON if present
-        if (StringUtils.hasText(dto.getConditionJson())) {
-            try {
-                // You might want to add more specific JSON validation here
-            } catch (Exception e) {
-                throw new IllegalArgumentException("Invalid condition JSON format");
-            }
-        }
+        // Validate condition JSON and compile it once so the decision path never parses it
+        return conditionCompiler.validate(dto.getConditionJson());
     }
 }
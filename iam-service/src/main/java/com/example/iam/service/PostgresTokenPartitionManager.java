@@ -0,0 +1,176 @@
+package com.example.iam.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Range-partitions tokens by expires_at with one partition per day (tokens_pYYYYMMDD) plus a default
+// partition. Expired tokens are removed by dropping whole partitions instead of deleting rows.
+//
+// On first start the plain table created by Hibernate is converted once: it is renamed to
+// tokens_legacy, a partitioned tokens table with the same columns is created and the rows that
+// have not passed retention are copied over. tokens_legacy is left in place to be dropped manually.
+// Unique indexes of a partitioned table must contain the partition key, so the primary key and the
+// token_hash / jti indexes include expires_at; they keep the names Hibernate expects.
+@Slf4j
+@RequiredArgsConstructor
+public class PostgresTokenPartitionManager implements TokenPartitionManager {
+
+    static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final String PARTITION_PREFIX = "tokens_p";
+    private static final String COLUMNS = "token_id, user_id, organization_id, client_id, token, token_hash, jti, family_id, "
+            + "rotation, token_type, expired, revoked, revoked_at, created_at, expires_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int precreateDays;
+    private final int retentionDays;
+
+    // Every CREATE and DROP runs in its own transaction, so one failing day does not stop the others or retention.
+    @Override
+    public void maintain() {
+        if (!isPartitioned()) {
+            transactionTemplate.executeWithoutResult(status -> convert());
+        }
+        LocalDate today = LocalDate.now();
+        Set<LocalDate> existing = existingPartitions();
+        for (LocalDate day : partitionsToCreate(existing, today, precreateDays)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> createPartition(day));
+            } catch (DataAccessException e) {
+                log.error("Could not create token partition {}", partitionName(day), e);
+            }
+        }
+        for (LocalDate day : partitionsToDrop(existing, today, retentionDays)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(day)));
+                log.info("Dropped token partition {}", partitionName(day));
+            } catch (DataAccessException e) {
+                log.error("Could not drop token partition {}", partitionName(day), e);
+            }
+        }
+        Long unpartitioned = jdbcTemplate.queryForObject("SELECT count(*) FROM tokens_default", Long.class);
+        if (unpartitioned != null && unpartitioned > 0) {
+            log.warn("{} tokens are in tokens_default and are never dropped by retention; raise "
+                    + "app.tokens.partitioning.precreate-days above the longest token lifetime", unpartitioned);
+        }
+    }
+
+    // A day cannot be created while tokens_default holds rows in its range, so those rows are moved into the new
+    // partition with the default detached. Detaching locks tokens until the transaction commits.
+    private void createPartition(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = day.plusDays(1).atStartOfDay();
+        Long stranded = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM tokens_default WHERE expires_at >= ? AND expires_at < ?", Long.class, from, to);
+        if (stranded == null || stranded == 0) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(day) + " PARTITION OF tokens FOR VALUES FROM ('"
+                    + day + "') TO ('" + day.plusDays(1) + "')");
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE tokens DETACH PARTITION tokens_default");
+        jdbcTemplate.execute("CREATE TABLE " + partitionName(day) + " PARTITION OF tokens FOR VALUES FROM ('"
+                + day + "') TO ('" + day.plusDays(1) + "')");
+        jdbcTemplate.update("INSERT INTO tokens (" + COLUMNS + ") SELECT " + COLUMNS
+                + " FROM tokens_default WHERE expires_at >= ? AND expires_at < ?", from, to);
+        jdbcTemplate.update("DELETE FROM tokens_default WHERE expires_at >= ? AND expires_at < ?", from, to);
+        jdbcTemplate.execute("ALTER TABLE tokens ATTACH PARTITION tokens_default DEFAULT");
+        log.info("Created token partition {} and moved {} tokens into it from tokens_default", partitionName(day), stranded);
+    }
+
+    // Days from yesterday through today + precreateDays that have no partition yet.
+    static List<LocalDate> partitionsToCreate(Collection<LocalDate> existing, LocalDate today, int precreateDays) {
+        List<LocalDate> days = new ArrayList<>();
+        for (LocalDate day = today.minusDays(1); !day.isAfter(today.plusDays(precreateDays)); day = day.plusDays(1)) {
+            if (!existing.contains(day)) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    // Partitions whose whole range expired more than retentionDays ago.
+    static List<LocalDate> partitionsToDrop(Collection<LocalDate> existing, LocalDate today, int retentionDays) {
+        LocalDate cutoff = today.minusDays(retentionDays);
+        return existing.stream().filter(day -> day.plusDays(1).isBefore(cutoff) || day.plusDays(1).isEqual(cutoff)).sorted().toList();
+    }
+
+    static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + PARTITION_SUFFIX.format(day);
+    }
+
+    private boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid "
+                        + "WHERE c.relname = 'tokens' AND c.relnamespace = current_schema()::regnamespace", Integer.class);
+        return count != null && count > 0;
+    }
+
+    private Set<LocalDate> existingPartitions() {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.relname = 'tokens' AND p.relnamespace = current_schema()::regnamespace", String.class);
+        Set<LocalDate> days = new TreeSet<>();
+        for (String name : names) {
+            if (name.startsWith(PARTITION_PREFIX)) {
+                days.add(LocalDate.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX));
+            }
+        }
+        return days;
+    }
+
+    private void convert() {
+        log.info("Converting tokens to a table partitioned by expires_at");
+        Long nextId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(token_id), 0) + 1 FROM tokens", Long.class);
+        jdbcTemplate.execute("ALTER TABLE tokens RENAME TO tokens_legacy");
+        for (String index : List.of("uk_tokens_token_hash", "uk_tokens_jti", "idx_tokens_family_id", "idx_tokens_revoked_at")) {
+            jdbcTemplate.execute("ALTER INDEX IF EXISTS " + index + " RENAME TO " + index.replace("tokens", "tokens_legacy"));
+        }
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS tokens_partitioned_id_seq START WITH " + nextId);
+        jdbcTemplate.execute("CREATE TABLE tokens ("
+                + "token_id bigint NOT NULL DEFAULT nextval('tokens_partitioned_id_seq'), "
+                + "user_id bigint REFERENCES users, "
+                + "organization_id bigint REFERENCES organizations, "
+                + "client_id varchar(255), "
+                + "token text NOT NULL, "
+                + "token_hash varchar(64), "
+                + "jti varchar(36), "
+                + "family_id varchar(36), "
+                + "rotation integer, "
+                + "token_type varchar(255) NOT NULL, "
+                + "expired boolean NOT NULL, "
+                + "revoked boolean NOT NULL, "
+                + "revoked_at timestamp(6), "
+                + "created_at timestamp(6) NOT NULL, "
+                + "expires_at timestamp(6) NOT NULL, "
+                + "PRIMARY KEY (token_id, expires_at)"
+                + ") PARTITION BY RANGE (expires_at)");
+        jdbcTemplate.execute("ALTER SEQUENCE tokens_partitioned_id_seq OWNED BY tokens.token_id");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX uk_tokens_token_hash ON tokens (token_hash, expires_at)");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX uk_tokens_jti ON tokens (jti, expires_at)");
+        jdbcTemplate.execute("CREATE INDEX idx_tokens_family_id ON tokens (family_id)");
+        jdbcTemplate.execute("CREATE INDEX idx_tokens_revoked_at ON tokens (revoked_at)");
+        jdbcTemplate.execute("CREATE TABLE tokens_default PARTITION OF tokens DEFAULT");
+
+        LocalDate today = LocalDate.now();
+        for (LocalDate day : partitionsToCreate(Set.of(), today, precreateDays)) {
+            jdbcTemplate.execute("CREATE TABLE " + partitionName(day) + " PARTITION OF tokens FOR VALUES FROM ('"
+                    + day + "') TO ('" + day.plusDays(1) + "')");
+        }
+        int copied = jdbcTemplate.update("INSERT INTO tokens (" + COLUMNS + ") SELECT " + COLUMNS
+                        + " FROM tokens_legacy WHERE expires_at >= ?",
+                today.minusDays(retentionDays).atStartOfDay());
+        log.info("Copied {} tokens into the partitioned table; drop tokens_legacy once it is no longer needed", copied);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.iam.service;
+
+import com.example.iam.authorization.AuthorizationChangeEvent;
+import com.example.iam.entity.BaseEntity;
+import com.example.iam.entity.Permission;
+import com.example.iam.entity.Resource;
+import com.example.iam.entity.Role;
+import com.example.iam.entity.Scope;
+import com.example.iam.entity.ServiceRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Set;
+
+// Evicts one organization's reference data from the second-level cache after an AuthorizationChangeEvent.
+// Hibernate keeps entries consistent with the writes it makes itself, but not a cached collection whose
+// elements were deleted (a role still listing a removed permission) or rows changed outside the session.
+// Only the affected organization's entries are evicted; other organizations keep theirs.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.cache.hibernate.enabled", havingValue = "true", matchIfMissing = true)
+public class ReferenceDataCacheInvalidator {
+
+    // Entities whose permissions collection is cached as well.
+    private static final Set<Class<?>> WITH_PERMISSIONS = Set.of(Role.class, Scope.class, Resource.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorizationChange(AuthorizationChangeEvent event) {
+        List<Class<? extends BaseEntity>> types = switch (event.getType()) {
+            case RESOURCE -> List.of(Resource.class, Permission.class, ServiceRegistry.class);
+            case ROLE -> List.of(Role.class);
+            case SCOPE -> List.of(Scope.class);
+            case USER, CLIENT, POLICY -> List.of();
+        };
+        if (types.isEmpty()) {
+            return;
+        }
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        for (Class<? extends BaseEntity> type : types) {
+            if (event.getOrganizationId() == null) {
+                cache.evictEntityData(type);
+                if (WITH_PERMISSIONS.contains(type)) {
+                    cache.evictCollectionData(permissionsRole(type));
+                }
+                continue;
+            }
+            for (Long id : idsOf(type, event.getOrganizationId())) {
+                cache.evictEntityData(type, id);
+                if (WITH_PERMISSIONS.contains(type)) {
+                    cache.evictCollectionData(permissionsRole(type), id);
+                }
+            }
+        }
+        // Cached query results may list rows that no longer match.
+        cache.evictDefaultQueryRegion();
+        log.debug("Evicted cached {} of organization {}", types, event.getOrganizationId());
+    }
+
+    private List<Long> idsOf(Class<? extends BaseEntity> type, Long organizationId) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery(
+                            "SELECT e.id FROM " + type.getSimpleName() + " e WHERE e.organization.id = :organizationId", Long.class)
+                    .setParameter("organizationId", organizationId)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static String permissionsRole(Class<?> type) {
+        return type.getName() + ".permissions";
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.iam.service;
 
+import com.example.iam.authorization.AuthorizationChangeEvent;
 import com.example.iam.entity.Resource;
 import com.example.iam.repository.ResourceRepository;
 import com.example.iam.repository.PermissionRepository;
@@ -8,6 +9,7 @@ import com.example.iam.dto.ResourceDTO;
 import com.example.iam.entity.Permission;
 // import com.example.iam.config.annotation.RequiresOrganizationContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +25,7 @@ public class ResourceService {
     private final ResourceRepository resourceRepository;
     private final PermissionRepository permissionRepository;
     private final ResourceMapper resourceMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<Resource> getAll() {
         return resourceRepository.findAll();
@@ -45,7 +48,9 @@ public class ResourceService {
             resource.setPermissions(permissions);
         }
 
-        return resourceRepository.save(resource);
+        Resource saved = resourceRepository.save(resource);
+        publishChange(saved);
+        return saved;
     }
 
     @Transactional
@@ -61,7 +66,9 @@ public class ResourceService {
             existing.setPermissions(permissions);
         }
 
-        return resourceRepository.save(existing);
+        Resource saved = resourceRepository.save(existing);
+        publishChange(saved);
+        return saved;
     }
 
     private Set<Permission> getPermissionsFromNames(Set<String> permissionNames) {
@@ -76,6 +83,13 @@ public class ResourceService {
 
     @Transactional
     public void delete(Long id) {
-        resourceRepository.deleteById(id);
+        Resource resource = getById(id);
+        resourceRepository.delete(resource);
+        publishChange(resource);
+    }
+
+    private void publishChange(Resource resource) {
+        Long organizationId = resource.getOrganization() != null ? resource.getOrganization().getId() : null;
+        eventPublisher.publishEvent(AuthorizationChangeEvent.resources(organizationId));
     }
 }
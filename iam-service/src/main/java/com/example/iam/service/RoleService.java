@@ -1,9 +1,11 @@
 package com.example.iam.service;
 
+import com.example.iam.authorization.AuthorizationChangeEvent;
 import com.example.iam.entity.Permission;
 import com.example.iam.entity.Role;
 import com.example.iam.repository.RoleRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.stream.Collectors;
@@ -25,6 +27,9 @@ public class RoleService {
     @Autowired
     private PermissionRepository permissionRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<Role> getAllRoles() {
         return roleRepository.findAll();
     }
@@ -48,7 +53,9 @@ public class RoleService {
             role.setPermissions(new HashSet<>());
         }
 
-        return roleRepository.save(role);
+        Role saved = roleRepository.save(role);
+        eventPublisher.publishEvent(AuthorizationChangeEvent.of(AuthorizationChangeEvent.Type.ROLE, saved));
+        return saved;
     }
 
     public Role getRole(Long id) {
@@ -69,7 +76,9 @@ public class RoleService {
             existingRole.setPermissions(permissions);
         }
         
-        return roleRepository.save(existingRole);
+        Role saved = roleRepository.save(existingRole);
+        eventPublisher.publishEvent(AuthorizationChangeEvent.of(AuthorizationChangeEvent.Type.ROLE, saved));
+        return saved;
     }
 
     @Transactional
@@ -77,6 +86,7 @@ public class RoleService {
     public void deleteRole(Long id) {
         Role role = getRole(id);
         roleRepository.delete(role);
+        eventPublisher.publishEvent(AuthorizationChangeEvent.of(AuthorizationChangeEvent.Type.ROLE, role));
     }
 
     public Set<Permission> getRolePermissions(Long id) {
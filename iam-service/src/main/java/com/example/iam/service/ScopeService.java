@@ -1,11 +1,13 @@
 package com.example.iam.service;
 
+import com.example.iam.authorization.AuthorizationChangeEvent;
 import com.example.iam.entity.Scope;
 import com.example.iam.dto.ScopeDTO;
 import com.example.iam.entity.Permission;
 import com.example.iam.repository.ScopeRepository;
 import com.example.iam.repository.PermissionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,6 +38,9 @@ public class ScopeService {
     @Autowired
     private ClientApplicationRepository clientApplicationRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<Scope> getAllScopes() {
         return scopeRepository.findAll();
     }
@@ -53,7 +58,9 @@ public class ScopeService {
             scope.setPermissions(permissions);
         }
         
-        return scopeRepository.save(scope);
+        Scope saved = scopeRepository.save(scope);
+        eventPublisher.publishEvent(AuthorizationChangeEvent.of(AuthorizationChangeEvent.Type.SCOPE, saved));
+        return saved;
     }
 
     public Scope getScope(Long id) {
@@ -80,7 +87,9 @@ public class ScopeService {
             }
         }
         
-        return scopeRepository.save(existingScope);
+        Scope saved = scopeRepository.save(existingScope);
+        eventPublisher.publishEvent(AuthorizationChangeEvent.of(AuthorizationChangeEvent.Type.SCOPE, saved));
+        return saved;
     }
 
     @Transactional
@@ -101,5 +110,6 @@ public class ScopeService {
         
         // Delete the scope
         scopeRepository.delete(scope);
+        eventPublisher.publishEvent(AuthorizationChangeEvent.of(AuthorizationChangeEvent.Type.SCOPE, scope));
     }
 } 
\ No newline at end of file
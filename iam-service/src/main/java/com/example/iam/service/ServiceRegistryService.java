@@ -1,5 +1,6 @@
 package com.example.iam.service;
 
+import com.example.iam.authorization.AuthorizationChangeEvent;
 import com.example.iam.security.OrganizationContextHolder;
 import com.example.iam.dto.ServiceRegistryDto;
 import com.example.iam.entity.Organization;
@@ -15,13 +16,16 @@ import io.swagger.v3.parser.OpenAPIV3Parser;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.PathItem;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -33,6 +37,7 @@ public class ServiceRegistryService {
     private final ResourceRepository resourceRepository;
     private final PermissionRepository permissionRepository;
     private final OrganizationRepository organizationRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private final ServiceRegistryMapper mapper = ServiceRegistryMapper.INSTANCE;
 
     public List<ServiceRegistryDto> getServices() {
@@ -77,6 +82,7 @@ public class ServiceRegistryService {
 
         // Save the service and its resources
         ServiceRegistry savedServiceRegistry = serviceRegistryRepository.save(serviceRegistry);
+        eventPublisher.publishEvent(AuthorizationChangeEvent.resources(organizationId));
 
         return mapper.toDto(savedServiceRegistry);
     }
@@ -114,6 +120,7 @@ public class ServiceRegistryService {
         }
 
         serviceRegistryRepository.delete(serviceRegistry);
+        eventPublisher.publishEvent(AuthorizationChangeEvent.resources(organizationId));
     }
 
     @Transactional
@@ -122,6 +129,7 @@ public class ServiceRegistryService {
         List<ServiceRegistry> services = serviceRegistryRepository.findAll();
         int totalReloaded = 0;
         int failedServices = 0;
+        Set<Long> changedOrganizations = new HashSet<>();
 
         for (ServiceRegistry service : services) {
             log.info("Reloading resources for service: '{}' (ID: {})", service.getName(), service.getId());
@@ -130,6 +138,7 @@ public class ServiceRegistryService {
                 service.getResources().clear();
                 service.getResources().addAll(newResources);
                 serviceRegistryRepository.save(service);
+                changedOrganizations.add(service.getOrganization() != null ? service.getOrganization().getId() : null);
                 log.info("Successfully reloaded {} resources for service '{}'", newResources.size(), service.getName());
                 totalReloaded += newResources.size();
             } catch (Exception e) {
@@ -137,6 +146,9 @@ public class ServiceRegistryService {
                 failedServices++;
             }
         }
+        // One rebuild per organization, however many of its services were reloaded
+        changedOrganizations.forEach(organizationId ->
+                eventPublisher.publishEvent(AuthorizationChangeEvent.resources(organizationId)));
         log.info("Finished resource reloading. Reloaded {} resources in total. Failed services: {}.", totalReloaded, failedServices);
     }
 
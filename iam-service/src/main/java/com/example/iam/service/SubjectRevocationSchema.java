@@ -0,0 +1,47 @@
+package com.example.iam.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+// uk_subject_revocations_subject treats NULL organization_id values as distinct, so it does not stop
+// two rows for the same organization-less subject (the super admin). On PostgreSQL a partial unique
+// index covers those rows; duplicates written before it existed are reduced to the newest one first.
+// Other databases rely on TokenService reading the newest row.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SubjectRevocationSchema {
+
+    static final String INDEX_NAME = "uk_subject_revocations_subject_global";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void createGlobalSubjectIndex() throws MetaDataAccessException {
+        String database = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        int removed = jdbcTemplate.update("DELETE FROM subject_revocations a USING subject_revocations b "
+                + "WHERE a.organization_id IS NULL AND b.organization_id IS NULL "
+                + "AND a.subject_type = b.subject_type AND a.subject = b.subject "
+                + "AND (a.revoked_before < b.revoked_before OR (a.revoked_before = b.revoked_before AND a.id < b.id))");
+        if (removed > 0) {
+            log.info("Removed {} duplicate subject revocations without organization", removed);
+        }
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + INDEX_NAME
+                + " ON subject_revocations (subject_type, subject) WHERE organization_id IS NULL");
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.iam.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Periodically marks (mode=mark) or deletes (mode=delete) token rows whose exp has passed. Each batch
+// runs in its own transaction and touches at most batch-size rows, so the sweeper never holds long
+// locks; a run stops after max-batches and picks up the rest on the next run.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.tokens.expiry-sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class TokenExpirySweeper {
+
+    private final TokenService tokenService;
+
+    @Value("${app.tokens.expiry-sweeper.mode:mark}")
+    private String mode;
+
+    @Value("${app.tokens.expiry-sweeper.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.tokens.expiry-sweeper.max-batches:100}")
+    private int maxBatches;
+
+    // Deleted rows are kept this long after expiry, e.g. for audit queries.
+    @Value("${app.tokens.expiry-sweeper.retention:PT0S}")
+    private Duration retention;
+
+    @Scheduled(fixedDelayString = "${app.tokens.expiry-sweeper.interval:PT5M}",
+            initialDelayString = "${app.tokens.expiry-sweeper.interval:PT5M}")
+    public void sweep() {
+        boolean delete = "delete".equalsIgnoreCase(mode);
+        LocalDateTime cutoff = LocalDateTime.now().minus(delete ? retention : Duration.ZERO);
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int rows = delete
+                    ? tokenService.deleteExpiredBatch(cutoff, batchSize)
+                    : tokenService.markExpiredBatch(cutoff, batchSize);
+            total += rows;
+            if (rows < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Token expiry sweep {} {} rows", delete ? "deleted" : "marked", total);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.iam.service;
+
+import com.example.iam.authorization.AuthorizationModelRegistry;
+import com.example.iam.dto.TokenIntrospectionResponse;
+import com.example.iam.exception.InvalidTokenException;
+import com.example.iam.security.JwtTokenProvider;
+import com.example.iam.security.VerifiedToken;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// RFC 7662 introspection of the tokens JwtTokenProvider issues. Answers come from JwtTokenProvider.verify,
+// so a token already seen is served from VerifiedTokenCache and TokenRevocationRegistry without the database.
+@Service
+@RequiredArgsConstructor
+public class TokenIntrospectionService {
+
+    private static final String TOKEN_TYPE = "Bearer";
+
+    private final JwtTokenProvider tokenProvider;
+    private final AuthorizationModelRegistry modelRegistry;
+
+    // Upper bound for the Cache-Control hint; a revoked token can stay active for callers that cache this long.
+    @Value("${app.jwt.introspection.max-age:PT30S}")
+    private Duration maxAge;
+
+    // Null when the token was not issued by JwtTokenProvider (bad signature or format), so other
+    // introspection sources can be asked.
+    public TokenIntrospectionResponse introspectIssued(String token) {
+        try {
+            return active(tokenProvider.verify(token));
+        } catch (InvalidTokenException e) {
+            return null;
+        }
+    }
+
+    public TokenIntrospectionResponse introspect(String token) {
+        TokenIntrospectionResponse response = token == null || token.isBlank() ? null : introspectIssued(token);
+        return response != null ? response : TokenIntrospectionResponse.INACTIVE;
+    }
+
+    // Duplicate tokens in one batch are verified once.
+    public List<TokenIntrospectionResponse> introspectAll(Collection<String> tokens) {
+        Map<String, TokenIntrospectionResponse> seen = new HashMap<>();
+        List<TokenIntrospectionResponse> responses = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            responses.add(seen.computeIfAbsent(Objects.toString(token, ""), this::introspect));
+        }
+        return responses;
+    }
+
+    // How long the answers may be cached: never past the earliest expiry of an active token.
+    public Duration cacheDuration(Collection<Long> expirations) {
+        long now = Instant.now().getEpochSecond();
+        Duration duration = maxAge;
+        for (Long exp : expirations) {
+            if (exp != null) {
+                Duration remaining = Duration.ofSeconds(Math.max(0, exp - now));
+                if (remaining.compareTo(duration) < 0) {
+                    duration = remaining;
+                }
+            }
+        }
+        return duration;
+    }
+
+    public Duration cacheDuration(List<TokenIntrospectionResponse> responses) {
+        return cacheDuration(responses.stream().map(TokenIntrospectionResponse::getExp).toList());
+    }
+
+    private TokenIntrospectionResponse active(VerifiedToken verified) {
+        boolean client = JwtTokenProvider.TYPE_CLIENT.equals(verified.getSubjectType());
+        Set<String> permissions = modelRegistry.permissionNames(verified);
+        return TokenIntrospectionResponse.builder()
+                .active(true)
+                .sub(verified.getSubject())
+                .username(client ? null : verified.getSubject())
+                .clientId(client ? verified.getSubject() : null)
+                .scope(permissions.isEmpty() ? null : String.join(" ", permissions))
+                .tokenType(TOKEN_TYPE)
+                .exp(epochSeconds(verified.getClaims().getExpiration()))
+                .iat(epochSeconds(verified.getIssuedAt()))
+                .jti(verified.getJti())
+                .organizationId(verified.getOrganizationId())
+                .build();
+    }
+
+    private static Long epochSeconds(Date date) {
+        return date != null ? date.toInstant().getEpochSecond() : null;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.iam.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Runs the TokenPartitionManager once at startup, so partitions for today's tokens exist before the
+// first login, and then on app.tokens.partitioning.cron.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.tokens.partitioning.enabled", havingValue = "true")
+public class TokenPartitionMaintenance {
+
+    private final TokenPartitionManager partitionManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${app.tokens.partitioning.cron:0 15 0 * * *}")
+    public void maintain() {
+        try {
+            partitionManager.maintain();
+        } catch (RuntimeException e) {
+            log.error("Token partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+}
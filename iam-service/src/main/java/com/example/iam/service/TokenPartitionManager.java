@@ -0,0 +1,8 @@
+package com.example.iam.service;
+
+// Keeps the token store from growing without bound: creates storage for upcoming expiry dates and
+// removes tokens whose expiry is older than the retention period.
+public interface TokenPartitionManager {
+
+    void maintain();
+}
@@ -1,12 +1,23 @@
 package com.example.iam.service;
 
+import com.example.iam.authorization.TokenRevocationEvent;
 import com.example.iam.entity.Token;
 import com.example.iam.entity.User;
 import com.example.iam.entity.Organization;
+import com.example.iam.entity.SubjectRevocation;
 import com.example.iam.repository.TokenRepository;
 import com.example.iam.repository.OrganizationRepository;
+import com.example.iam.repository.SubjectRevocationRepository;
+import com.example.iam.security.JwtTokenProvider;
+import com.example.iam.security.TokenDigest;
+import com.example.iam.security.TokenRevocationRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
@@ -15,9 +26,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
+import java.util.function.Predicate;
 
 @Slf4j
 @Service
@@ -25,12 +35,18 @@ import java.util.Optional;
 public class TokenService {
     private final TokenRepository tokenRepository;
     private final OrganizationRepository organizationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SubjectRevocationRepository subjectRevocationRepository;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final MeterRegistry meterRegistry;
+    private final TokenWriteBehind tokenWriteBehind;
 
     @Value("${app.super-admin.username}")
     private String superAdminUsername;
 
     @Transactional
-    public void saveToken(String token, User user, Token.TokenType tokenType, LocalDateTime expiresAt) {
+    public void saveToken(String token, String jti, String familyId, Integer rotation, User user, Token.TokenType tokenType,
+                          LocalDateTime expiresAt) {
         Organization organization = null;
 
         // Superadmin tokens are not associated with any organization
@@ -47,23 +63,28 @@ public class TokenService {
             }
             
             Long organizationId = Long.valueOf(orgIdAttr.toString());
-            organization = organizationRepository.findById(organizationId)
-                .orElseThrow(() -> new IllegalStateException("Organization not found for ID: " + organizationId));
+            organization = findOrganization(organizationId);
                 
             log.info("Saving token for user: {} in organization: {}", user.getUsername(), organizationId);
         } else {
             log.info("Saving token for superadmin user: {}", user.getUsername());
         }
 
-        // Revoke all existing tokens of the same type for this user
-        tokenRepository.findByUserAndTokenTypeAndExpiredFalseAndRevokedFalse(user, tokenType)
-            .forEach(existingToken -> {
-                existingToken.setRevoked(true);
-                tokenRepository.save(existingToken);
-            });
+        // Revoke all existing tokens of the same type for this user. Their jti values reach the revocation
+        // registry, which every verification consults, so no cache has to be scanned for them.
+        revokePending(t -> t.getTokenType() == tokenType && t.getUser() != null
+                && t.getUser().getId().equals(user.getId()));
+        if (tokenType == Token.TokenType.ACCESS) {
+            revokeJtis(tokenRepository.findActiveJtisByUserAndTokenType(user, tokenType));
+        }
+        countRows("revoke", tokenRepository.revokeByUserAndTokenType(user, tokenType, LocalDateTime.now()));
 
         Token tokenEntity = new Token();
         tokenEntity.setToken(token);
+        tokenEntity.setTokenHash(TokenDigest.of(token));
+        tokenEntity.setJti(jti);
+        tokenEntity.setFamilyId(familyId);
+        tokenEntity.setRotation(rotation);
         tokenEntity.setUser(user);
         tokenEntity.setTokenType(tokenType);
         tokenEntity.setExpired(false);
@@ -71,11 +92,11 @@ public class TokenService {
         tokenEntity.setCreatedAt(LocalDateTime.now());
         tokenEntity.setExpiresAt(expiresAt);
         tokenEntity.setOrganization(organization);
-        tokenRepository.save(tokenEntity);
+        persist(tokenEntity);
     }
 
     @Transactional
-    public void saveClientToken(String token, String clientId, Token.TokenType tokenType, LocalDateTime expiresAt) {
+    public void saveClientToken(String token, String jti, String clientId, Token.TokenType tokenType, LocalDateTime expiresAt) {
         // Lấy organization ID từ request attribute
         ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
         if (attributes == null) {
@@ -89,20 +110,21 @@ public class TokenService {
         }
         
         Long organizationId = Long.parseLong(orgIdStr);
-        Organization organization = organizationRepository.findById(organizationId)
-            .orElseThrow(() -> new IllegalStateException("Organization not found"));
+        Organization organization = findOrganization(organizationId);
             
         log.info("Saving client token for client: {} in organization: {}", clientId, organizationId);
 
         // Revoke all existing tokens of the same type for this client
-        tokenRepository.findByClientIdAndTokenTypeAndExpiredFalseAndRevokedFalse(clientId, tokenType)
-            .forEach(existingToken -> {
-                existingToken.setRevoked(true);
-                tokenRepository.save(existingToken);
-            });
+        revokePending(t -> t.getTokenType() == tokenType && clientId.equals(t.getClientId()));
+        if (tokenType == Token.TokenType.ACCESS) {
+            revokeJtis(tokenRepository.findActiveJtisByClientIdAndTokenType(clientId, tokenType));
+        }
+        countRows("revoke", tokenRepository.revokeByClientIdAndTokenType(clientId, tokenType, LocalDateTime.now()));
 
         Token tokenEntity = new Token();
         tokenEntity.setToken(token);
+        tokenEntity.setTokenHash(TokenDigest.of(token));
+        tokenEntity.setJti(jti);
         tokenEntity.setClientId(clientId);
         tokenEntity.setTokenType(tokenType);
         tokenEntity.setExpired(false);
@@ -110,45 +132,137 @@ public class TokenService {
         tokenEntity.setCreatedAt(LocalDateTime.now());
         tokenEntity.setExpiresAt(expiresAt);
         tokenEntity.setOrganization(organization);
-        tokenRepository.save(tokenEntity);
+        persist(tokenEntity);
     }
 
     @Transactional
     public void revokeToken(String token) {
-        tokenRepository.findByToken(token)
-            .forEach(tokenEntity -> {
-                tokenEntity.setRevoked(true);
-                tokenRepository.save(tokenEntity);
+        String tokenHash = TokenDigest.of(token);
+        revokePending(t -> tokenHash.equals(t.getTokenHash())).forEach(this::publishRevocation);
+        tokenRepository.findByTokenHash(tokenHash)
+            .ifPresent(tokenEntity -> {
+                revocationRegistry.revokeJti(tokenEntity.getTokenType(), tokenEntity.getJti(), tokenEntity.getExpiresAt());
+                countRows("revoke", tokenRepository.revokeByTokenHash(tokenHash, LocalDateTime.now()));
+                publishRevocation(tokenEntity);
             });
     }
 
+    // Revokes the tokens a refresh token family issued, e.g. when one of its rotated refresh tokens is replayed.
+    @Transactional
+    public int revokeFamily(String familyId, Long organizationId, String subject) {
+        int revoked = revokePending(t -> familyId.equals(t.getFamilyId())).size();
+        revokeJtis(tokenRepository.findActiveJtisByFamilyIdAndTokenType(familyId, Token.TokenType.ACCESS));
+        revoked += countRows("revoke", tokenRepository.revokeByFamilyId(familyId, LocalDateTime.now()));
+        if (revoked > 0) {
+            eventPublisher.publishEvent(new TokenRevocationEvent(organizationId, subject));
+        }
+        return revoked;
+    }
+
+    // Rows still waiting in the write-behind queue are not seen; the rows they replace are revoked already.
+    public Integer findLatestRotation(String familyId) {
+        return tokenRepository.findLatestRotationByFamilyId(familyId);
+    }
+
+    // The registry consults the single "revoked before now" epoch, plus the jti of access tokens issued
+    // within the same second, which the epoch cannot tell apart; the set-based UPDATE keeps the rows accurate.
     @Transactional
     public void revokeAllUserTokens(User user) {
-        tokenRepository.findByUserAndExpiredFalseAndRevokedFalse(user)
-                .forEach(token -> {
-                    token.setRevoked(true);
-                    tokenRepository.save(token);
-                });
+        Long organizationId = user.getOrganization() != null ? user.getOrganization().getId() : null;
+        LocalDateTime now = LocalDateTime.now();
+        SubjectRevocation revocation = subjectRevocationRepository
+                .findFirstByOrganizationIdAndSubjectTypeAndSubjectOrderByRevokedBeforeDesc(
+                        organizationId, JwtTokenProvider.TYPE_USER, user.getUsername())
+                .orElseGet(() -> SubjectRevocation.builder()
+                        .organization(user.getOrganization())
+                        .subjectType(JwtTokenProvider.TYPE_USER)
+                        .subject(user.getUsername())
+                        .build());
+        revocation.setRevokedBefore(now);
+        subjectRevocationRepository.save(revocation);
+        revocationRegistry.revokeIssuedUntil(organizationId, JwtTokenProvider.TYPE_USER, user.getUsername(), now);
+        revokePending(t -> t.getUser() != null && t.getUser().getId().equals(user.getId()));
+        revokeJtis(tokenRepository.findActiveJtisByUserAndTokenType(user, Token.TokenType.ACCESS));
+        countRows("revoke", tokenRepository.revokeByUser(user, now));
+        eventPublisher.publishEvent(new TokenRevocationEvent(organizationId, user.getUsername()));
     }
 
-    public boolean isTokenValid(String token) {
-        List<Token> tokens = tokenRepository.findByToken(token);
+    // Marks up to batchSize tokens whose exp has passed as expired; returns the number of rows updated.
+    @Transactional
+    public int markExpiredBatch(LocalDateTime now, int batchSize) {
+        List<Long> ids = tokenRepository.findExpiredUnmarkedIds(now, PageRequest.of(0, batchSize));
+        return ids.isEmpty() ? 0 : countRows("expire", tokenRepository.markExpired(ids));
+    }
+
+    // Deletes up to batchSize tokens that expired before cutoff; returns the number of rows deleted.
+    @Transactional
+    public int deleteExpiredBatch(LocalDateTime cutoff, int batchSize) {
+        List<Long> ids = tokenRepository.findExpiredIds(cutoff, PageRequest.of(0, batchSize));
+        return ids.isEmpty() ? 0 : countRows("delete", tokenRepository.deleteByIdIn(ids));
+    }
+
+    private Organization findOrganization(Long organizationId) {
+        if (tokenWriteBehind.isEnabled()) {
+            // Only the id is written; the foreign key rejects unknown organizations when the row is flushed.
+            return organizationRepository.getReferenceById(organizationId);
+        }
+        return organizationRepository.findById(organizationId)
+            .orElseThrow(() -> new IllegalStateException("Organization not found for ID: " + organizationId));
+    }
+
+    private void persist(Token tokenEntity) {
+        if (!tokenWriteBehind.enqueue(tokenEntity)) {
+            tokenRepository.save(tokenEntity);
+        }
+    }
+
+    // Revokes matching tokens that are still waiting in the write-behind queue.
+    private List<Token> revokePending(Predicate<Token> filter) {
+        List<Token> revoked = tokenWriteBehind.revokePending(filter);
+        revoked.forEach(t -> revocationRegistry.revokeJti(t.getTokenType(), t.getJti(), t.getExpiresAt()));
+        return revoked;
+    }
+
+    // Access tokens only; refresh tokens are always checked against the token store.
+    private void revokeJtis(List<Object[]> jtis) {
+        for (Object[] row : jtis) {
+            revocationRegistry.revokeJti(Token.TokenType.ACCESS, (String) row[0], (LocalDateTime) row[1]);
+        }
+    }
+
+    private int countRows(String operation, int rows) {
+        meterRegistry.counter("iam.tokens.rows", "operation", operation).increment(rows);
+        return rows;
+    }
+
+    private void publishRevocation(Token token) {
+        String subject = token.getUser() != null ? token.getUser().getUsername() : token.getClientId();
+        if (subject != null) {
+            Long organizationId = token.getOrganization() != null ? token.getOrganization().getId() : null;
+            eventPublisher.publishEvent(new TokenRevocationEvent(organizationId, subject, token.getToken()));
+        }
+    }
+
+    // Tokens stored before token_hash existed would otherwise be rejected until they expire.
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillTokenHashes() {
+        List<Token> tokens = tokenRepository.findByTokenHashIsNullAndRevokedFalseAndExpiresAtAfter(LocalDateTime.now());
+        tokens.forEach(token -> token.setTokenHash(TokenDigest.of(token.getToken())));
+        tokenRepository.saveAll(tokens);
         if (!tokens.isEmpty()) {
-            // Get the most recent token
-            Token tokenEntity = tokens.stream()
-                .max(Comparator.comparing(Token::getCreatedAt))
-                .orElse(null);
-                
-            if (tokenEntity != null) {
-                // Check if token is expired
-                if (LocalDateTime.now().isAfter(tokenEntity.getExpiresAt())) {
-                    tokenEntity.setExpired(true);
-                    tokenRepository.save(tokenEntity);
-                    return false;
-                }
-                return !tokenEntity.isExpired() && !tokenEntity.isRevoked();
-            }
+            log.info("Backfilled token_hash for {} active tokens", tokens.size());
+        }
+    }
+
+    // Signature and exp are checked from the token's claims before this is called; the store only
+    // records revocation, so this is a single probe on the unique token_hash index and never writes.
+    public boolean isTokenValid(String token) {
+        String tokenHash = TokenDigest.of(token);
+        Boolean pending = tokenWriteBehind.isValid(tokenHash);
+        if (pending != null) {
+            return pending;
         }
-        return false;
+        return tokenRepository.existsByTokenHashAndRevokedFalseAndExpiredFalse(tokenHash);
     }
 } 
\ No newline at end of file
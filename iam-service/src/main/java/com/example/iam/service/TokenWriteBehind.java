@@ -0,0 +1,247 @@
+package com.example.iam.service;
+
+import com.example.iam.entity.Token;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+// Optional write-behind for newly issued tokens (app.tokens.write-behind.enabled). TokenService hands
+// the row over instead of inserting it; a single writer thread inserts queued rows with JDBC batches.
+// Until a row is flushed it is found through the pending index, so isTokenValid and the revocation
+// paths see it as if it had been inserted.
+//
+// Durability: a row is queued only after the issuing transaction commits and is flushed within
+// flush-interval; shutdown drains the queue. Rows still queued when the process dies are lost. The
+// tokens themselves stay valid until exp (validation does not need the row), and they can still be
+// revoked through revokeAllUserTokens, but not one by one.
+// Backpressure: at most capacity rows are pending. When the queue is full, enqueue returns false and
+// the caller inserts synchronously as if write-behind were disabled.
+// Single node only: the pending index is local, so other nodes would reject tokens issued here until
+// they are flushed, and their bulk revocations would miss rows still queued here. Startup fails unless
+// app.tokens.write-behind.single-node confirms that one node issues, validates and revokes all tokens.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenWriteBehind {
+
+    private static final String INSERT_SQL = "INSERT INTO tokens (user_id, organization_id, client_id, token, token_hash, jti, "
+            + "family_id, rotation, token_type, expired, revoked, revoked_at, created_at, expires_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, false, ?, ?, ?, ?)";
+    private static final String REVOKE_SQL = "UPDATE tokens SET revoked = true, revoked_at = ? WHERE token_hash = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.tokens.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.tokens.write-behind.single-node:false}")
+    private boolean singleNode;
+
+    @Value("${app.tokens.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${app.tokens.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.tokens.write-behind.flush-interval:PT0.2S}")
+    private Duration flushInterval;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    // token_hash -> row not yet inserted
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private Semaphore permits;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        if (!singleNode) {
+            throw new IllegalStateException("app.tokens.write-behind.enabled requires app.tokens.write-behind.single-node=true: "
+                    + "tokens queued on one node are not visible to the others until they are flushed");
+        }
+        permits = new Semaphore(capacity);
+        meterRegistry.gauge("iam.tokens.write_behind.pending", pending, Map::size);
+        running = true;
+        writer = new Thread(this::run, "token-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer != null) {
+            running = false;
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Takes over inserting the token. Returns false when write-behind is disabled or full.
+    public boolean enqueue(Token token) {
+        if (!enabled) {
+            return false;
+        }
+        if (!permits.tryAcquire()) {
+            meterRegistry.counter("iam.tokens.write_behind", "result", "rejected").increment();
+            return false;
+        }
+        meterRegistry.counter("iam.tokens.write_behind", "result", "queued").increment();
+        Pending row = new Pending(token);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(row);
+            return true;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    add(row);
+                } else {
+                    permits.release();
+                }
+            }
+        });
+        return true;
+    }
+
+    // Validity of a pending token, or null if the token is not pending.
+    public Boolean isValid(String tokenHash) {
+        Pending row = pending.get(tokenHash);
+        return row != null ? !row.revoked : null;
+    }
+
+    // Marks matching pending tokens revoked and returns them. Must run before the corresponding bulk
+    // UPDATE so that a row flushed concurrently is either inserted revoked or caught by that UPDATE.
+    public List<Token> revokePending(Predicate<Token> filter) {
+        List<Token> revoked = new ArrayList<>();
+        if (pending.isEmpty()) {
+            return revoked;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Pending row : pending.values()) {
+            if (!row.revoked && filter.test(row.token)) {
+                row.token.setRevokedAt(now);
+                row.revoked = true;
+                revoked.add(row.token);
+            }
+        }
+        return revoked;
+    }
+
+    private void add(Pending row) {
+        pending.put(row.token.getTokenHash(), row);
+        queue.add(row);
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("Token write-behind flush failed: {}", e.getMessage(), e);
+            } finally {
+                permits.release(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), this::bind);
+        } catch (DataAccessException e) {
+            // Retry row by row so one bad row (e.g. a deleted user) does not lose the whole batch.
+            log.warn("Batch insert of {} tokens failed, retrying individually: {}", batch.size(), e.getMessage());
+            for (Pending row : batch) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, row));
+                } catch (DataAccessException rowFailure) {
+                    row.inserted = false;
+                    log.error("Dropping token {} for user {} / client {}: {}", row.token.getJti(),
+                            row.token.getUser() != null ? row.token.getUser().getId() : null,
+                            row.token.getClientId(), rowFailure.getMessage());
+                }
+            }
+        }
+        int inserted = 0;
+        for (Pending row : batch) {
+            inserted += row.inserted ? 1 : 0;
+            pending.remove(row.token.getTokenHash(), row);
+            if (row.inserted && row.revoked && !row.insertedRevoked) {
+                jdbcTemplate.update(REVOKE_SQL, row.token.getRevokedAt(), row.token.getTokenHash());
+            }
+        }
+        meterRegistry.counter("iam.tokens.rows", "operation", "insert").increment(inserted);
+    }
+
+    private void bind(PreparedStatement ps, Pending row) throws SQLException {
+        Token token = row.token;
+        row.insertedRevoked = row.revoked;
+        row.inserted = true;
+        ps.setObject(1, token.getUser() != null ? token.getUser().getId() : null, Types.BIGINT);
+        ps.setObject(2, token.getOrganization() != null ? token.getOrganization().getId() : null, Types.BIGINT);
+        ps.setString(3, token.getClientId());
+        ps.setString(4, token.getToken());
+        ps.setString(5, token.getTokenHash());
+        ps.setString(6, token.getJti());
+        ps.setString(7, token.getFamilyId());
+        ps.setObject(8, token.getRotation(), Types.INTEGER);
+        ps.setString(9, token.getTokenType().name());
+        ps.setBoolean(10, row.insertedRevoked);
+        ps.setObject(11, row.insertedRevoked ? token.getRevokedAt() : null, Types.TIMESTAMP);
+        ps.setObject(12, token.getCreatedAt());
+        ps.setObject(13, token.getExpiresAt());
+    }
+
+    private static final class Pending {
+        final Token token;
+        volatile boolean revoked;
+        // Written and read by the writer thread only.
+        boolean inserted;
+        boolean insertedRevoked;
+
+        Pending(Token token) {
+            this.token = token;
+        }
+    }
+}
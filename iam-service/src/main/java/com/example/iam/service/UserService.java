@@ -1,5 +1,6 @@
 package com.example.iam.service;
 
+import com.example.iam.authorization.AuthorizationChangeEvent;
 import com.example.iam.dto.UserDTO;
 import com.example.iam.entity.Role;
 import com.example.iam.entity.Scope;
@@ -12,6 +13,7 @@ import com.example.iam.repository.OrganizationRepository;
 import com.example.iam.repository.ClientApplicationRepository;
 import com.example.iam.audit.Auditable;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,6 +32,7 @@ public class UserService {
     private final OrganizationRepository organizationRepository;
     private final PasswordEncoder passwordEncoder;
     private final ClientApplicationRepository clientApplicationRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public boolean isClientId(String id) {
         return clientApplicationRepository.findByClientId(id).isPresent();
@@ -62,7 +65,7 @@ public class UserService {
         user.setRoles(roles);
         user.setOrganization(organizationRepository.findById(userDTO.getOrganization_id())
                 .orElseThrow(() -> new RuntimeException("Organization not found with id: " + userDTO.getOrganization_id())));
-        return userRepository.save(user);
+        return saveAndPublish(user);
     }
 
     @Transactional
@@ -96,13 +99,15 @@ public class UserService {
             existingUser.setOrganization(organization);
         }
 
-        return userRepository.save(existingUser);
+        return saveAndPublish(existingUser);
     }
 
     @Transactional
     @Auditable(action = "DELETE_USER")
     public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+        User user = findById(id);
+        userRepository.delete(user);
+        publishChange(user);
     }
 
     public Set<Role> getUserRoles(Long id) {
@@ -116,7 +121,7 @@ public class UserService {
         Role role = roleRepository.findById(roleId)
                 .orElseThrow(() -> new RuntimeException("Role not found"));
         user.getRoles().add(role);
-        return userRepository.save(user);
+        return saveAndPublish(user);
     }
 
     @Transactional
@@ -126,7 +131,7 @@ public class UserService {
         Role role = roleRepository.findById(roleId)
                 .orElseThrow(() -> new RuntimeException("Role not found"));
         user.getRoles().remove(role);
-        return userRepository.save(user);
+        return saveAndPublish(user);
     }
 
     public Set<Scope> getUserScopes(Long id) {
@@ -140,7 +145,7 @@ public class UserService {
         Scope scope = scopeRepository.findById(scopeId)
                 .orElseThrow(() -> new RuntimeException("Scope not found"));
         user.getScopes().add(scope);
-        return userRepository.save(user);
+        return saveAndPublish(user);
     }
 
     @Transactional
@@ -150,6 +155,16 @@ public class UserService {
         Scope scope = scopeRepository.findById(scopeId)
                 .orElseThrow(() -> new RuntimeException("Scope not found"));
         user.getScopes().remove(scope);
-        return userRepository.save(user);
+        return saveAndPublish(user);
+    }
+
+    private User saveAndPublish(User user) {
+        User saved = userRepository.save(user);
+        publishChange(saved);
+        return saved;
+    }
+
+    private void publishChange(User user) {
+        eventPublisher.publishEvent(AuthorizationChangeEvent.of(AuthorizationChangeEvent.Type.USER, user));
     }
 }
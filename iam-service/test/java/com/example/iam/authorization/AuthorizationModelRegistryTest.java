@@ -0,0 +1,153 @@
+package com.example.iam.authorization;
+
+import com.example.iam.entity.Permission;
+import com.example.iam.security.VerifiedToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorizationModelRegistryTest {
+
+    @Mock
+    private AuthorizationModelLoader loader;
+
+    @InjectMocks
+    private AuthorizationModelRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(registry, "maxAge", Duration.ofHours(1));
+    }
+
+    @Test
+    void current_ShouldLoadOnceAndReuseSnapshot() {
+        // Arrange
+        when(loader.load(eq(1L), anyLong())).thenAnswer(invocation -> model(1L, invocation.getArgument(1)));
+
+        // Act
+        AuthorizationModel first = registry.current(1L);
+        AuthorizationModel second = registry.current(1L);
+
+        // Assert
+        assertSame(first, second);
+        verify(loader, times(1)).load(eq(1L), anyLong());
+    }
+
+    @Test
+    void current_ShouldReloadModelOlderThanMaxAge() {
+        // Arrange
+        ReflectionTestUtils.setField(registry, "maxAge", Duration.ZERO);
+        when(loader.load(eq(1L), anyLong())).thenAnswer(invocation -> model(1L, invocation.getArgument(1)));
+
+        // Act
+        AuthorizationModel first = registry.current(1L);
+        AuthorizationModel second = registry.current(1L);
+
+        // Assert
+        assertNotSame(first, second);
+        assertTrue(second.getVersion() > first.getVersion());
+        verify(loader, times(2)).load(eq(1L), anyLong());
+    }
+
+    @Test
+    void onAuthorizationChange_ShouldRebuildOutsideTheMapSoLoadsMayReadOtherOrganizations() {
+        // Arrange
+        when(loader.load(anyLong(), anyLong())).thenAnswer(invocation -> model(invocation.getArgument(0), invocation.getArgument(1)));
+        AuthorizationModel before = registry.current(1L);
+        when(loader.rebuild(same(before), eq(1L), anySet(), anyLong())).thenAnswer(invocation -> {
+            registry.current(2L);
+            return model(1L, invocation.getArgument(3));
+        });
+
+        // Act
+        registry.onAuthorizationChange(new AuthorizationChangeEvent(1L, AuthorizationChangeEvent.Type.ROLE));
+
+        // Assert
+        assertNotSame(before, registry.current(1L));
+        assertEquals(2L, registry.current(2L).getOrganizationId());
+    }
+
+    @Test
+    void onAuthorizationChange_ShouldRebuildOnlyAffectedPartWithHigherVersion() {
+        // Arrange
+        when(loader.load(eq(1L), anyLong())).thenAnswer(invocation -> model(1L, invocation.getArgument(1)));
+        AuthorizationModel before = registry.current(1L);
+        when(loader.rebuild(same(before), eq(1L), eq(EnumSet.of(AuthorizationModel.Part.POLICIES)), anyLong()))
+                .thenAnswer(invocation -> model(1L, invocation.getArgument(3)));
+
+        // Act
+        registry.onAuthorizationChange(new AuthorizationChangeEvent(1L, AuthorizationChangeEvent.Type.POLICY));
+        AuthorizationModel after = registry.current(1L);
+
+        // Assert
+        assertNotSame(before, after);
+        assertTrue(after.getVersion() > before.getVersion());
+    }
+
+    @Test
+    void onAuthorizationChange_ShouldIgnoreOrganizationsNotLoaded() {
+        // Act
+        registry.onAuthorizationChange(AuthorizationChangeEvent.resources(2L));
+
+        // Assert
+        verifyNoInteractions(loader);
+    }
+
+    @Test
+    void permissionBits_ShouldDecodeBitsetsOfReplacedDictionary() {
+        // Arrange
+        PermissionDictionary before = PermissionDictionary.build(List.of(permission(10L, "read"), permission(30L, "delete")));
+        PermissionDictionary after = PermissionDictionary.build(List.of(permission(10L, "read"), permission(20L, "write"),
+                permission(30L, "delete")));
+        when(loader.load(eq(1L), anyLong())).thenAnswer(invocation -> model(1L, invocation.getArgument(1), before));
+        AuthorizationModel old = registry.current(1L);
+        when(loader.rebuild(same(old), eq(1L), anySet(), anyLong()))
+                .thenAnswer(invocation -> model(1L, invocation.getArgument(3), after));
+        VerifiedToken token = mock(VerifiedToken.class);
+        when(token.getPermissionBits()).thenReturn(PermissionBits.toBase64Url(before.encode(List.of("delete"))));
+        when(token.getPermissionDictionaryVersion()).thenReturn(before.getVersion());
+
+        // Act
+        registry.onAuthorizationChange(AuthorizationChangeEvent.resources(1L));
+        AuthorizationModel current = registry.current(1L);
+        long[] bits = registry.permissionBits(current, token);
+
+        // Assert
+        assertNotEquals(before.getVersion(), after.getVersion());
+        assertEquals(Set.of("delete"), after.decode(bits));
+        assertSame(before, registry.dictionary(1L, before.getVersion()));
+        assertSame(after, registry.dictionary(1L, after.getVersion()));
+    }
+
+    private AuthorizationModel model(Long organizationId, long version) {
+        return model(organizationId, version, PermissionDictionary.empty());
+    }
+
+    private AuthorizationModel model(Long organizationId, long version, PermissionDictionary dictionary) {
+        return new AuthorizationModel(organizationId, version, dictionary, ResourcePathTrie.empty(),
+                new AuthorizationModel.Subjects(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(),
+                        Collections.emptyMap()),
+                PolicyIndex.empty());
+    }
+
+    private Permission permission(Long id, String name) {
+        Permission permission = new Permission(name);
+        permission.setId(id);
+        return permission;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.iam.authorization;
+
+import com.example.iam.authorization.condition.PolicyCondition;
+import com.example.iam.entity.Policy;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorizationModelTest {
+
+    private final AuthorizationModel model = new AuthorizationModel(1L, 1L, PermissionDictionary.empty(),
+            ResourcePathTrie.empty(),
+            new AuthorizationModel.Subjects(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(),
+                    Map.of("editor", new long[]{10L}, "auditor", new long[]{11L})),
+            PolicyIndex.build(List.of(
+                    policy(1L, Policy.SubjectType.ROLE, 10L, Policy.Effect.ALLOW),
+                    policy(2L, Policy.SubjectType.ROLE, 11L, Policy.Effect.DENY),
+                    policy(3L, Policy.SubjectType.SCOPE, 20L, Policy.Effect.ALLOW),
+                    policy(4L, Policy.SubjectType.USER, 7L, Policy.Effect.DENY))));
+
+    @Test
+    void policiesFor_ShouldFanInRoleAndScopePolicies() {
+        SubjectEntry user = user(8L, new long[]{10L, 11L}, new long[]{20L});
+
+        PolicyIndex.Bucket bucket = model.policiesFor(user).get(100L).get("user:read");
+
+        assertEquals(List.of(2L), ids(bucket.getDeny()));
+        assertEquals(Set.of(1L, 3L), Set.copyOf(ids(bucket.getAllow())));
+    }
+
+    @Test
+    void policiesFor_ShouldCombineDirectAndInheritedPolicies() {
+        SubjectEntry user = user(7L, new long[]{10L}, new long[0]);
+
+        PolicyIndex.Bucket bucket = model.policiesFor(user).get(100L).get("user:read");
+
+        assertEquals(List.of(4L), ids(bucket.getDeny()));
+        assertEquals(List.of(1L), ids(bucket.getAllow()));
+    }
+
+    @Test
+    void policiesFor_ShouldShareInheritedViewBetweenSubjectsWithSameGrants() {
+        Map<Long, Map<String, PolicyIndex.Bucket>> first = model.policiesFor(user(8L, new long[]{10L, 11L}, new long[0]));
+        Map<Long, Map<String, PolicyIndex.Bucket>> second = model.policiesFor(user(9L, new long[]{10L, 11L}, new long[0]));
+
+        assertSame(first, second);
+        assertTrue(model.policiesFor(user(9L, new long[0], new long[0])).isEmpty());
+    }
+
+    @Test
+    void policiesFor_ShouldFanInClaimedRolesInsteadOfCurrentRoles() {
+        SubjectEntry user = user(7L, new long[]{10L}, new long[]{20L});
+
+        PolicyIndex.Bucket bucket = model.policiesFor(user, Set.of("auditor", "removed")).get(100L).get("user:read");
+
+        assertEquals(Set.of(2L, 4L), Set.copyOf(ids(bucket.getDeny())));
+        assertEquals(List.of(3L), ids(bucket.getAllow()));
+    }
+
+    @Test
+    void policiesFor_ShouldUseOnlyClaimedRolesForSubjectMissingFromModel() {
+        PolicyIndex.Bucket bucket = model.policiesFor(null, Set.of("editor", "auditor")).get(100L).get("user:read");
+
+        assertEquals(List.of(2L), ids(bucket.getDeny()));
+        assertEquals(List.of(1L), ids(bucket.getAllow()));
+    }
+
+    private SubjectEntry user(Long id, long[] roleIds, long[] scopeIds) {
+        return new SubjectEntry(id, "user-" + id, Policy.SubjectType.USER, Set.of(), roleIds, scopeIds, PermissionBits.EMPTY);
+    }
+
+    private PolicyEntry policy(Long id, Policy.SubjectType type, Long subjectId, Policy.Effect effect) {
+        return new PolicyEntry(id, type, subjectId, 100L, "user:read", effect, PolicyCondition.ALWAYS);
+    }
+
+    private List<Long> ids(PolicyEntry[] policies) {
+        return Arrays.stream(policies).map(PolicyEntry::getId).toList();
+    }
+}
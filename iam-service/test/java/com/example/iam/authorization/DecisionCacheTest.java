@@ -0,0 +1,71 @@
+package com.example.iam.authorization;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionCacheTest {
+
+    private DecisionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DecisionCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "maxTtl", Duration.ofMinutes(5));
+        cache.init();
+    }
+
+    @Test
+    void get_ShouldKeyClientIpDependentDecisionsByAddress() {
+        // Arrange
+        DecisionCache.Key key = key(1L, "alice");
+        cache.put(key, () -> "10.0.0.1", true, new DecisionCache.Decision(Long.MAX_VALUE, true));
+
+        // Act & Assert
+        assertEquals(Boolean.TRUE, cache.get(key, () -> "10.0.0.1"));
+        assertNull(cache.get(key, () -> "10.0.0.2"));
+    }
+
+    @Test
+    void put_ShouldSkipDecisionsAtTheirBoundary() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2024, 6, 15, 17, 0);
+        DecisionCache.Key key = key(1L, "alice");
+
+        // Act
+        cache.put(key, () -> null, false, DecisionCache.Decision.of(now, now, false));
+
+        // Assert
+        assertNull(cache.get(key, () -> null));
+    }
+
+    @Test
+    void onAuthorizationChange_ShouldEvictOrganization() {
+        // Arrange
+        DecisionCache.Key alice = key(1L, "alice");
+        DecisionCache.Key bob = key(1L, "bob");
+        DecisionCache.Key other = key(2L, "alice");
+        for (DecisionCache.Key key : new DecisionCache.Key[] {alice, bob, other}) {
+            cache.put(key, () -> null, true, DecisionCache.Decision.UNCONDITIONAL);
+        }
+
+        // Act
+        cache.onAuthorizationChange(new AuthorizationChangeEvent(1L, AuthorizationChangeEvent.Type.POLICY));
+
+        // Assert
+        assertNull(cache.get(alice, () -> null));
+        assertNull(cache.get(bob, () -> null));
+        assertEquals(Boolean.TRUE, cache.get(other, () -> null));
+    }
+
+    private static DecisionCache.Key key(Long organizationId, String subject) {
+        return new DecisionCache.Key(organizationId, 1L, "user", subject, 0L, "/api/users", "GET");
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.iam.authorization;
+
+import com.example.iam.entity.Permission;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermissionDictionaryTest {
+
+    private final PermissionDictionary dictionary = PermissionDictionary.build(List.of(
+            permission(30L, "user:delete"),
+            permission(10L, "user:read"),
+            permission(20L, "user:write"),
+            permission(10L, "user:read")));
+
+    @Test
+    void build_ShouldNumberByPrimaryKeyWithoutDuplicates() {
+        assertEquals(3, dictionary.size());
+        assertEquals(0, dictionary.idOf("user:read"));
+        assertEquals(2, dictionary.idOf("user:delete"));
+        assertEquals(-1, dictionary.idOf("unknown"));
+    }
+
+    @Test
+    void getVersion_ShouldDifferForDifferentNumberings() {
+        // "Aa" and "BB" share a String.hashCode; "ab"+"c" and "a"+"bc" share a concatenation.
+        assertNotEquals(version("Aa", "user:read"), version("BB", "user:read"));
+        assertNotEquals(version("ab", "c"), version("a", "bc"));
+        assertNotEquals(version("user:read", "user:write"), version("user:write", "user:read"));
+        assertEquals(version("user:read", "user:write"), version("user:read", "user:write"));
+    }
+
+    @Test
+    void encode_ShouldRoundTripAndDropUnknownNames() {
+        long[] bits = dictionary.encode(List.of("user:delete", "user:read", "unknown"));
+
+        assertEquals(2, PermissionBits.cardinality(bits));
+        assertEquals(Set.of("user:read", "user:delete"), dictionary.decode(bits));
+        assertSame(PermissionBits.EMPTY, dictionary.encode(List.of("unknown")));
+    }
+
+    @Test
+    void intersects_ShouldCompareWordWise() {
+        long[] readWrite = dictionary.encode(List.of("user:read", "user:write"));
+
+        assertTrue(PermissionBits.intersects(readWrite, dictionary.encode(List.of("user:write"))));
+        assertFalse(PermissionBits.intersects(readWrite, dictionary.encode(List.of("user:delete"))));
+        assertFalse(PermissionBits.intersects(readWrite, PermissionBits.EMPTY));
+    }
+
+    @Test
+    void intersects_ShouldHandleIdsBeyondFirstWord() {
+        long[] high = PermissionBits.of(new int[]{3, 130});
+        long[] low = PermissionBits.of(new int[]{3});
+
+        assertEquals(3, high.length);
+        assertTrue(PermissionBits.contains(high, 130));
+        assertTrue(PermissionBits.intersects(low, high));
+        assertFalse(PermissionBits.intersects(PermissionBits.of(new int[]{129}), high));
+    }
+
+    @Test
+    void toBase64Url_ShouldRoundTripWithoutTrailingZeroBytes() {
+        long[] high = PermissionBits.of(new int[]{0, 9, 130});
+
+        String encoded = PermissionBits.toBase64Url(high);
+
+        assertArrayEquals(high, PermissionBits.fromBase64Url(encoded));
+        assertEquals(23, encoded.length());
+        assertEquals("", PermissionBits.toBase64Url(PermissionBits.EMPTY));
+        assertSame(PermissionBits.EMPTY, PermissionBits.fromBase64Url(""));
+    }
+
+    @Test
+    void grantsAnyRequired_ShouldPassWhenAnyMatchedResourceIsGranted() {
+        ResourceEntry open = resource(1L, List.of());
+        ResourceEntry delete = resource(2L, List.of("user:delete"));
+        ResourceEntry read = resource(3L, List.of("user:read"));
+        long[] granted = dictionary.encode(List.of("user:read"));
+
+        assertTrue(ResourceEntry.grantsAnyRequired(List.of(open), granted));
+        assertTrue(ResourceEntry.grantsAnyRequired(List.of(delete, read), granted));
+        assertFalse(ResourceEntry.grantsAnyRequired(List.of(open, delete), granted));
+    }
+
+    private ResourceEntry resource(Long id, List<String> permissions) {
+        return new ResourceEntry(id, "resource-" + id, "/r/" + id, null, Set.copyOf(permissions), dictionary.encode(permissions));
+    }
+
+    private String version(String... names) {
+        List<Permission> permissions = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            permissions.add(permission((long) i, names[i]));
+        }
+        return PermissionDictionary.build(permissions).getVersion();
+    }
+
+    private Permission permission(Long id, String name) {
+        Permission permission = new Permission(name);
+        permission.setId(id);
+        return permission;
+    }
+}
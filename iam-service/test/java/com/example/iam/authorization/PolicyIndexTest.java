@@ -0,0 +1,48 @@
+package com.example.iam.authorization;
+
+import com.example.iam.authorization.condition.PolicyCondition;
+import com.example.iam.entity.Policy;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolicyIndexTest {
+
+    private final PolicyIndex index = PolicyIndex.build(List.of(
+            policy(3L, 7L, 100L, "user:read", Policy.Effect.ALLOW),
+            policy(1L, 7L, 100L, "user:read", Policy.Effect.DENY),
+            policy(2L, 7L, 100L, "user:read", Policy.Effect.ALLOW),
+            policy(4L, 7L, 200L, "user:read", Policy.Effect.ALLOW),
+            policy(5L, 8L, 100L, "user:read", Policy.Effect.DENY)));
+
+    @Test
+    void find_ShouldPartitionByEffectInIdOrder() {
+        PolicyIndex.Bucket bucket = index.find(Policy.SubjectType.USER, 7L, 100L, "user:read");
+
+        assertEquals(1, bucket.getDeny().length);
+        assertEquals(1L, bucket.getDeny()[0].getId());
+        assertEquals(2L, bucket.getAllow()[0].getId());
+        assertEquals(3L, bucket.getAllow()[1].getId());
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void find_ShouldOnlyReturnPoliciesForExactSubjectResourceAndAction() {
+        assertNull(index.find(Policy.SubjectType.USER, 7L, 100L, "user:write"));
+        assertNull(index.find(Policy.SubjectType.USER, 9L, 100L, "user:read"));
+        assertNull(index.find(Policy.SubjectType.CLIENT, 7L, 100L, "user:read"));
+        assertEquals(4L, index.find(Policy.SubjectType.USER, 7L, 200L, "user:read").getAllow()[0].getId());
+    }
+
+    @Test
+    void forSubject_ShouldReturnEmptyMapForUnknownSubject() {
+        assertTrue(index.forSubject(Policy.SubjectType.ROLE, 1L).isEmpty());
+        assertEquals(2, index.forSubject(Policy.SubjectType.USER, 7L).size());
+    }
+
+    private PolicyEntry policy(Long id, Long subjectId, Long resourceId, String action, Policy.Effect effect) {
+        return new PolicyEntry(id, Policy.SubjectType.USER, subjectId, resourceId, action, effect, PolicyCondition.ALWAYS);
+    }
+}
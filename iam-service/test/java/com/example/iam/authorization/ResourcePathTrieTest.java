@@ -0,0 +1,73 @@
+package com.example.iam.authorization;
+
+import com.example.iam.entity.Resource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourcePathTrieTest {
+
+    private ResourcePathTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = ResourcePathTrie.build(List.of(
+                entry(1L, "/api/users", Resource.HttpMethod.GET),
+                entry(2L, "/api/users/{id}", Resource.HttpMethod.GET),
+                entry(3L, "/api/users/me", Resource.HttpMethod.GET),
+                entry(4L, "/api/users/{id}", Resource.HttpMethod.DELETE),
+                entry(5L, "/files/{name}.json", Resource.HttpMethod.GET)
+        ));
+    }
+
+    @Test
+    void match_ShouldResolveLiteralPath() {
+        List<ResourceEntry> matches = trie.match("/api/users", "GET");
+
+        assertEquals(1, matches.size());
+        assertEquals(1L, matches.get(0).getId());
+    }
+
+    @Test
+    void match_ShouldResolveParameterSegment() {
+        List<ResourceEntry> matches = trie.match("/api/users/42", "get");
+
+        assertEquals(1, matches.size());
+        assertEquals(2L, matches.get(0).getId());
+    }
+
+    @Test
+    void match_ShouldReturnLiteralAndParameterMatches() {
+        List<ResourceEntry> matches = trie.match("/api/users/me", "GET");
+
+        assertEquals(Set.of(2L, 3L), Set.of(matches.get(0).getId(), matches.get(1).getId()));
+    }
+
+    @Test
+    void match_ShouldRespectMethod() {
+        assertEquals(4L, trie.match("/api/users/42", "DELETE").get(0).getId());
+        assertTrue(trie.match("/api/users/42", "PUT").isEmpty());
+        assertTrue(trie.match("/api/users/42", "UNKNOWN").isEmpty());
+    }
+
+    @Test
+    void match_ShouldNotMatchEmptyOrExtraSegments() {
+        assertTrue(trie.match("/api/users/", "GET").isEmpty());
+        assertTrue(trie.match("/api/users/42/roles", "GET").isEmpty());
+        assertTrue(trie.match("/api", "GET").isEmpty());
+    }
+
+    @Test
+    void match_ShouldResolveMixedTemplateSegment() {
+        assertEquals(5L, trie.match("/files/report.json", "GET").get(0).getId());
+        assertTrue(trie.match("/files/report.xml", "GET").isEmpty());
+    }
+
+    private ResourceEntry entry(Long id, String path, Resource.HttpMethod method) {
+        return new ResourceEntry(id, "resource-" + id, path, method, Set.of(), PermissionBits.EMPTY);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.iam.authorization;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>(meterRegistry, "test.flight");
+
+    @Test
+    void execute_ShouldShareOneComputationBetweenConcurrentCallers() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            Future<Integer> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+                started.countDown();
+                awaitQuietly(release);
+                return computations.incrementAndGet();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Integer> follower = executor.submit(() -> singleFlight.execute("key", computations::incrementAndGet));
+            while (meterRegistry.counter("test.flight", "flight", "coalesced").count() < 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Assert
+            assertEquals(1, leader.get(5, TimeUnit.SECONDS));
+            assertEquals(1, follower.get(5, TimeUnit.SECONDS));
+            assertEquals(1, computations.get());
+            assertEquals(1.0, meterRegistry.counter("test.flight", "flight", "computed").count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_ShouldNotRetainFinishedComputations() {
+        // Act
+        singleFlight.execute("key", () -> 1);
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        // Assert
+        assertEquals(2, singleFlight.execute("key", () -> 2));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
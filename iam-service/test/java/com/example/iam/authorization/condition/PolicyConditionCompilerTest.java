@@ -0,0 +1,88 @@
+package com.example.iam.authorization.condition;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolicyConditionCompilerTest {
+
+    private final PolicyConditionCompiler compiler = new PolicyConditionCompiler();
+
+    private final ConditionContext context = new ConditionContext(
+            7L, Set.of("ADMIN", "AUDITOR"), "192.168.1.25", LocalDateTime.of(2024, 6, 15, 10, 30));
+
+    @Test
+    void compile_ShouldAllowWhenNoConditions() {
+        assertTrue(compiler.compile(null).test(context));
+        assertTrue(compiler.compile(" ").test(context));
+    }
+
+    @Test
+    void compile_ShouldEvaluateTimeAndDateConditions() {
+        assertTrue(compiler.compile("{\"type\":\"time\",\"operator\":\"between\",\"value\":{\"start\":\"09:00\",\"end\":\"17:00\"}}").test(context));
+        assertFalse(compiler.compile("{\"type\":\"time\",\"operator\":\"before\",\"value\":\"09:00\"}").test(context));
+        assertTrue(compiler.compile("{\"type\":\"date\",\"operator\":\"after\",\"value\":\"2024-01-01\"}").test(context));
+    }
+
+    @Test
+    void compile_ShouldEvaluateIpConditions() {
+        assertTrue(compiler.compile("{\"type\":\"ip\",\"operator\":\"in\",\"value\":[\"10.0.0.0/8\",\"192.168.1.0/24\"]}").test(context));
+        assertFalse(compiler.compile("{\"type\":\"ip\",\"operator\":\"not_in\",\"value\":[\"192.168.0.0/16\"]}").test(context));
+        assertTrue(compiler.compile("{\"type\":\"ip\",\"operator\":\"in\",\"value\":[\"192.168.1.25\"]}").test(context));
+    }
+
+    @Test
+    void compile_ShouldEvaluateRoleAndOrganizationConditions() {
+        assertTrue(compiler.compile("{\"type\":\"role\",\"operator\":\"has_any\",\"value\":[\"USER\",\"ADMIN\"]}").test(context));
+        assertFalse(compiler.compile("{\"type\":\"role\",\"operator\":\"has_all\",\"value\":[\"USER\",\"ADMIN\"]}").test(context));
+        assertFalse(compiler.compile("{\"type\":\"role\",\"operator\":\"has\",\"value\":\"ADMIN\"}").test(context));
+        assertTrue(compiler.compile("{\"type\":\"organization\",\"operator\":\"in\",\"value\":[3,7]}").test(context));
+        assertFalse(compiler.compile("{\"type\":\"organization\",\"operator\":\"is\",\"value\":3}").test(context));
+    }
+
+    @Test
+    void compile_ShouldRequireAllConditionsInArray() {
+        String json = "[{\"type\":\"role\",\"operator\":\"has\",\"value\":\"ADMIN\"},"
+                + "{\"type\":\"ip\",\"operator\":\"in\",\"value\":[\"10.0.0.0/8\"]}]";
+
+        assertFalse(compiler.compile(json).test(context));
+    }
+
+    @Test
+    void compile_ShouldDenyInvalidConditions() {
+        assertFalse(compiler.compile("{not json").test(context));
+        assertFalse(compiler.compile("{\"type\":\"weather\",\"operator\":\"is\",\"value\":\"sunny\"}").test(context));
+    }
+
+    @Test
+    void nextChange_ShouldReturnEarliestUpcomingBoundary() {
+        PolicyCondition businessHours = compiler.compile("{\"type\":\"time\",\"operator\":\"between\",\"value\":{\"start\":\"09:00\",\"end\":\"17:00\"}}");
+        PolicyCondition startsTomorrow = compiler.compile("{\"type\":\"date\",\"operator\":\"after\",\"value\":\"2024-06-15\"}");
+        PolicyCondition expired = compiler.compile("{\"type\":\"date\",\"operator\":\"before\",\"value\":\"2024-01-01\"}");
+        PolicyCondition role = compiler.compile("{\"type\":\"role\",\"operator\":\"has\",\"value\":\"ADMIN\"}");
+
+        assertEquals(LocalDateTime.of(2024, 6, 15, 17, 0), businessHours.nextChange(context));
+        assertEquals(LocalDateTime.of(2024, 6, 16, 0, 0), startsTomorrow.nextChange(context));
+        assertNull(expired.nextChange(context));
+        assertNull(role.nextChange(context));
+    }
+
+    @Test
+    void dependsOnClientIp_ShouldPropagateThroughArrays() {
+        String json = "[{\"type\":\"role\",\"operator\":\"has\",\"value\":\"ADMIN\"},"
+                + "{\"type\":\"ip\",\"operator\":\"in\",\"value\":[\"10.0.0.0/8\"]}]";
+
+        assertTrue(compiler.compile(json).dependsOnClientIp());
+        assertFalse(compiler.compile("{\"type\":\"role\",\"operator\":\"has\",\"value\":\"ADMIN\"}").dependsOnClientIp());
+    }
+
+    @Test
+    void validate_ShouldRejectInvalidConditions() {
+        assertThrows(IllegalArgumentException.class, () -> compiler.validate("{not json"));
+        assertThrows(IllegalArgumentException.class, () -> compiler.validate("{\"type\":\"time\",\"operator\":\"before\",\"value\":\"25:99\"}"));
+        assertThrows(IllegalArgumentException.class, () -> compiler.validate("{\"type\":\"ip\",\"operator\":\"in\",\"value\":[\"10.0.0.0/40\"]}"));
+    }
+}
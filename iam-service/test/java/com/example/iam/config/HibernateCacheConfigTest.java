@@ -0,0 +1,149 @@
+package com.example.iam.config;
+
+import com.example.iam.authorization.AuthorizationChangeEvent;
+import com.example.iam.entity.Organization;
+import com.example.iam.entity.Permission;
+import com.example.iam.entity.Role;
+import com.example.iam.repository.OrganizationRepository;
+import com.example.iam.repository.PermissionRepository;
+import com.example.iam.repository.RoleRepository;
+import com.example.iam.service.ReferenceDataCacheInvalidator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({HibernateCacheConfig.class, ReferenceDataCacheInvalidator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HibernateCacheConfigTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private ReferenceDataCacheInvalidator invalidator;
+
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cache = entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+
+    @Test
+    void findById_ShouldBeServedFromSecondLevelCache() {
+        // Arrange
+        Long id = permissionRepository.save(Permission.builder().name(unique("perm")).build()).getId();
+        cache.evictAllRegions();
+        permissionRepository.findById(id);
+        statistics.clear();
+
+        // Act
+        Optional<Permission> permission = permissionRepository.findById(id);
+
+        // Assert
+        assertTrue(permission.isPresent());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void findByName_ShouldCacheResultsPerOrganizationFilter() {
+        // Arrange
+        Organization organization = organizationRepository.save(organization());
+        String name = unique("perm");
+        permissionRepository.save(Permission.builder().name(name).build());
+        permissionRepository.findByName(name);
+        statistics.clear();
+
+        // Act
+        Optional<Permission> unfiltered = permissionRepository.findByName(name);
+        long unfilteredStatements = statistics.getPrepareStatementCount();
+        Optional<Permission> filtered = transactionTemplate.execute(status -> {
+            entityManager.unwrap(Session.class).enableFilter("organizationFilter")
+                    .setParameter("organizationId", organization.getId());
+            return permissionRepository.findByName(name);
+        });
+
+        // Assert
+        assertTrue(unfiltered.isPresent());
+        assertEquals(0, unfilteredStatements);
+        assertTrue(statistics.getQueryCacheHitCount() >= 1);
+        assertFalse(filtered.isPresent());
+    }
+
+    @Test
+    void onAuthorizationChange_ShouldEvictOnlyTheOrganizationsEntries() {
+        // Arrange
+        Long affected = roleIn(organizationRepository.save(organization()));
+        Long other = roleIn(organizationRepository.save(organization()));
+        Long organizationId = roleRepository.findById(affected).orElseThrow().getOrganization().getId();
+
+        // Act
+        invalidator.onAuthorizationChange(new AuthorizationChangeEvent(organizationId, AuthorizationChangeEvent.Type.ROLE));
+
+        // Assert
+        assertFalse(cache.containsEntity(Role.class, affected));
+        assertFalse(cache.containsCollection(Role.class.getName() + ".permissions", affected));
+        assertTrue(cache.containsEntity(Role.class, other));
+        assertTrue(cache.containsCollection(Role.class.getName() + ".permissions", other));
+    }
+
+    // Saves a role with one permission and loads both into the cache.
+    private Long roleIn(Organization organization) {
+        Permission permission = permissionRepository.save(Permission.builder().name(unique("perm")).build());
+        Role role = Role.builder().name(unique("ROLE")).build();
+        role.setOrganization(organization);
+        role.getPermissions().add(permission);
+        Long id = roleRepository.save(role).getId();
+        transactionTemplate.executeWithoutResult(status -> roleRepository.findById(id).orElseThrow().getPermissions().size());
+        return id;
+    }
+
+    private static Organization organization() {
+        Organization organization = new Organization();
+        organization.setName(unique("org"));
+        organization.setActive(true);
+        return organization;
+    }
+
+    private static String unique(String prefix) {
+        return prefix + ":" + UUID.randomUUID();
+    }
+}
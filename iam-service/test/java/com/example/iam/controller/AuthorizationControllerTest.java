@@ -0,0 +1,65 @@
+package com.example.iam.controller;
+
+import com.example.iam.dto.AuthorizationRequest;
+import com.example.iam.dto.AuthorizationResponse;
+import com.example.iam.dto.BatchAuthorizationRequest;
+import com.example.iam.dto.BatchAuthorizationResponse;
+import com.example.iam.service.AuthorizationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorizationControllerTest {
+
+    @Mock
+    private AuthorizationService authorizationService;
+
+    @InjectMocks
+    private AuthorizationController authorizationController;
+
+    @Test
+    void checkPermission_ShouldReturnDecision() {
+        // Arrange
+        AuthorizationRequest request = new AuthorizationRequest();
+        request.setToken("token");
+        request.setPath("/api/users");
+        request.setMethod("GET");
+        when(authorizationService.checkPermission("token", "/api/users", "GET")).thenReturn(true);
+
+        // Act
+        ResponseEntity<AuthorizationResponse> response = authorizationController.checkPermission(request);
+
+        // Assert
+        assertEquals(200, response.getStatusCode().value());
+        assertTrue(response.getBody().isAllowed());
+    }
+
+    @Test
+    void checkPermissions_ShouldReturnDecisionsInRequestOrder() {
+        // Arrange
+        List<BatchAuthorizationRequest.Check> checks = List.of(
+                new BatchAuthorizationRequest.Check("/api/users", "GET"),
+                new BatchAuthorizationRequest.Check("/api/users/1", "DELETE"));
+        BatchAuthorizationRequest request = new BatchAuthorizationRequest();
+        request.setToken("token");
+        request.setChecks(checks);
+        when(authorizationService.checkPermissions("token", checks)).thenReturn(new boolean[]{true, false});
+
+        // Act
+        ResponseEntity<BatchAuthorizationResponse> response = authorizationController.checkPermissions(request);
+
+        // Assert
+        assertEquals(200, response.getStatusCode().value());
+        assertArrayEquals(new boolean[]{true, false}, response.getBody().getDecisions());
+        verify(authorizationService).checkPermissions("token", checks);
+    }
+}
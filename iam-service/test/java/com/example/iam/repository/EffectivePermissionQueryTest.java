@@ -0,0 +1,95 @@
+package com.example.iam.repository;
+
+import com.example.iam.entity.ClientApplication;
+import com.example.iam.entity.Permission;
+import com.example.iam.entity.Role;
+import com.example.iam.entity.Scope;
+import com.example.iam.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class EffectivePermissionQueryTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ClientApplicationRepository clientApplicationRepository;
+
+    private Statistics statistics;
+    private User user;
+    private ClientApplication client;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        user = persist(User.builder().username("alice").email("alice@example.com").password("secret").active(true).build());
+        client = new ClientApplication();
+        client.setClientId("reporting");
+        client.setClientSecret("secret");
+        client.setName("Reporting");
+        persist(client);
+        for (int r = 0; r < 3; r++) {
+            Role role = persist(Role.builder().name("ROLE_" + r).build());
+            Scope scope = persist(Scope.builder().name("scope" + r).build());
+            for (int p = 0; p < 4; p++) {
+                Permission permission = persist(Permission.builder().name("perm:" + r + ":" + p).build());
+                role.getPermissions().add(permission);
+                scope.getPermissions().add(permission);
+            }
+            user.getRoles().add(role);
+            client.getScopes().add(scope);
+        }
+        user.getRoles().add(persist(Role.builder().name("ROLE_EMPTY").build()));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void findRolePermissionNamesByUserId_ShouldLoadAllRolesAndPermissionsInOneStatement() {
+        // Act
+        List<RolePermissionName> grants = userRepository.findRolePermissionNamesByUserId(user.getId());
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(Set.of("ROLE_0", "ROLE_1", "ROLE_2", "ROLE_EMPTY"),
+                grants.stream().map(RolePermissionName::getRoleName).collect(Collectors.toSet()));
+        assertEquals(12, grants.stream().map(RolePermissionName::getPermissionName).filter(name -> name != null).count());
+    }
+
+    @Test
+    void findPermissionNamesById_ShouldLoadClientPermissionsInOneStatement() {
+        // Act
+        Set<String> permissions = clientApplicationRepository.findPermissionNamesById(client.getId());
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(12, permissions.size());
+        assertTrue(permissions.contains("perm:2:3"));
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
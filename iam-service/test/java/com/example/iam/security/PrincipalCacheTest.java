@@ -0,0 +1,88 @@
+package com.example.iam.security;
+
+import com.example.iam.authorization.AuthorizationChangeEvent;
+import com.example.iam.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PrincipalCacheTest {
+
+    private UserDetailsService userDetailsService;
+    private PrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername(anyString())).thenAnswer(invocation -> UserPrincipal.builder()
+                .id(1L)
+                .username(invocation.getArgument(0))
+                .password("hash")
+                .user(new User())
+                .authorities(new ArrayList<>(List.of(new SimpleGrantedAuthority("ROLE_USER"))))
+                .build());
+        cache = new PrincipalCache(userDetailsService);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(10));
+        cache.init();
+    }
+
+    @Test
+    void load_ShouldCacheDetachedPrincipalPerTokenIssue() {
+        // Act
+        UserDetails first = cache.load(token(1L, "alice", 1000));
+        UserDetails second = cache.load(token(1L, "alice", 1000));
+        cache.load(token(1L, "alice", 2000));
+
+        // Assert
+        assertSame(first, second);
+        assertNull(first.getPassword());
+        assertNull(((UserPrincipal) first).getUser());
+        assertThrows(UnsupportedOperationException.class, () -> ((List<?>) first.getAuthorities()).clear());
+        verify(userDetailsService, times(2)).loadUserByUsername("alice");
+    }
+
+    @Test
+    void onAuthorizationChange_ShouldEvictOnlyTheChangedOrganization() {
+        // Arrange
+        cache.load(token(1L, "alice", 1000));
+        cache.load(token(2L, "bob", 1000));
+
+        // Act
+        cache.onAuthorizationChange(new AuthorizationChangeEvent(1L, AuthorizationChangeEvent.Type.POLICY));
+        cache.onAuthorizationChange(new AuthorizationChangeEvent(1L, AuthorizationChangeEvent.Type.ROLE));
+        cache.load(token(1L, "alice", 1000));
+        cache.load(token(2L, "bob", 1000));
+
+        // Assert
+        verify(userDetailsService, times(2)).loadUserByUsername("alice");
+        verify(userDetailsService, times(1)).loadUserByUsername("bob");
+
+        // Act
+        cache.onAuthorizationChange(new AuthorizationChangeEvent(null, AuthorizationChangeEvent.Type.RESOURCE));
+        cache.load(token(2L, "bob", 1000));
+
+        // Assert
+        verify(userDetailsService, times(2)).loadUserByUsername("bob");
+    }
+
+    private static VerifiedToken token(Long organizationId, String subject, long issuedAt) {
+        VerifiedToken token = mock(VerifiedToken.class);
+        when(token.getOrganizationId()).thenReturn(organizationId);
+        when(token.getSubject()).thenReturn(subject);
+        when(token.getIssuedAt()).thenReturn(new Date(issuedAt));
+        return token;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.iam.security;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+// Sign/verify throughput of the supported token algorithms on the current machine. Not part of the
+// regular run: mvn test -Dtest=SigningBenchmarkTest -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SigningBenchmarkTest {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 10_000;
+
+    @Test
+    void compareSignAndVerifyThroughput() throws Exception {
+        measure(SignatureAlgorithm.RS256, keyPair("RSA", 2048));
+        measure(SignatureAlgorithm.ES256, keyPair("EC", 256));
+    }
+
+    private void measure(SignatureAlgorithm algorithm, KeyPair keys) {
+        JwtParser parser = Jwts.parserBuilder().setSigningKey(keys.getPublic()).build();
+        for (int i = 0; i < WARMUP; i++) {
+            parser.parseClaimsJws(sign(algorithm, keys));
+        }
+
+        long start = System.nanoTime();
+        List<String> tokens = new ArrayList<>(ITERATIONS);
+        for (int i = 0; i < ITERATIONS; i++) {
+            tokens.add(sign(algorithm, keys));
+        }
+        long signed = System.nanoTime();
+        for (String token : tokens) {
+            parser.parseClaimsJws(token);
+        }
+        long verified = System.nanoTime();
+
+        System.out.printf("%s: sign %.0f ops/s, verify %.0f ops/s%n", algorithm.getValue(),
+                ITERATIONS / ((signed - start) / 1e9), ITERATIONS / ((verified - signed) / 1e9));
+    }
+
+    private String sign(SignatureAlgorithm algorithm, KeyPair keys) {
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject("benchmark")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(keys.getPrivate(), algorithm)
+                .compact();
+    }
+
+    private KeyPair keyPair(String type, int size) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(type);
+        generator.initialize(size);
+        return generator.generateKeyPair();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.iam.security;
+
+import com.nimbusds.jose.jwk.JWK;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SigningKeyRingTest {
+
+    private static KeyPair active;
+    private static KeyPair retiring;
+    private static KeyPair ec;
+
+    @TempDir
+    Path keyDir;
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        active = generator.generateKeyPair();
+        retiring = generator.generateKeyPair();
+        KeyPairGenerator ecGenerator = KeyPairGenerator.getInstance("EC");
+        ecGenerator.initialize(256);
+        ec = ecGenerator.generateKeyPair();
+    }
+
+    @Test
+    void load_ShouldDeriveSameKidFromSameKey() throws Exception {
+        // Act
+        SigningKeyRing first = ring(List.of());
+        SigningKeyRing second = ring(List.of());
+
+        // Assert
+        assertEquals(first.getActiveKeyId(), second.getActiveKeyId());
+        assertEquals(first.getPublicJwkSetETag(), second.getPublicJwkSetETag());
+    }
+
+    @Test
+    void getVerificationKey_ShouldSelectByKidAndFallBackToActiveKeyWithoutKid() throws Exception {
+        // Arrange
+        SigningKeyRing ring = ring(List.of(retiring.getPublic()));
+        String retiringKid = ring.getPublicJwkSet().getKeys().stream()
+                .map(JWK::getKeyID)
+                .filter(kid -> !kid.equals(ring.getActiveKeyId()))
+                .findFirst().orElseThrow();
+
+        // Act & Assert
+        assertEquals(active.getPublic(), ring.getVerificationKey(ring.getActiveKeyId()));
+        assertEquals(active.getPublic(), ring.getVerificationKey(null));
+        assertEquals(retiring.getPublic(), ring.getVerificationKey(retiringKid));
+        assertNull(ring.getVerificationKey("unknown"));
+    }
+
+    @Test
+    void getPublicJwkSet_ShouldPublishWholeRingWithoutPrivateKeys() throws Exception {
+        // Arrange
+        SigningKeyRing ring = ring(List.of(retiring.getPublic()));
+
+        // Act & Assert
+        assertEquals(2, ring.getPublicJwkSet().getKeys().size());
+        assertTrue(ring.getPublicJwkSet().getKeys().stream().noneMatch(JWK::isPrivate));
+        assertEquals(1, ring.getSigningJwkSet().getKeys().size());
+        assertTrue(ring.getSigningJwkSet().getKeys().get(0).isPrivate());
+    }
+
+    @Test
+    void init_ShouldLoadEcPairFromPemAndSignWithEs256() throws Exception {
+        // Arrange
+        SigningKeyRing ring = new SigningKeyRing(new DefaultResourceLoader());
+        ReflectionTestUtils.setField(ring, "privateKeyResource", new FileSystemResource(pem("rsa.key", "PRIVATE", active.getPrivate())));
+        ReflectionTestUtils.setField(ring, "publicKeyResource", new FileSystemResource(pem("rsa.pub", "PUBLIC", active.getPublic())));
+        ReflectionTestUtils.setField(ring, "ecPrivateKeyLocation", "file:" + pem("ec.key", "PRIVATE", ec.getPrivate()));
+        ReflectionTestUtils.setField(ring, "ecPublicKeyLocation", "file:" + pem("ec.pub", "PUBLIC", ec.getPublic()));
+        ReflectionTestUtils.setField(ring, "retiringKeyLocations", new String[0]);
+        ReflectionTestUtils.setField(ring, "algorithm", SignatureAlgorithm.ES256);
+
+        // Act
+        ring.init();
+        String token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, ring.getActiveKeyId())
+                .setSubject("alice")
+                .signWith(ring.getSigningKey(), ring.getSignatureAlgorithm())
+                .compact();
+
+        // Assert
+        assertEquals(ec.getPublic(), ring.getVerificationKey(ring.getActiveKeyId()));
+        assertEquals(active.getPublic(), ring.getVerificationKey(null));
+        assertEquals(2, ring.getSigningJwkSet().getKeys().size());
+        assertEquals("alice", Jwts.parserBuilder().setSigningKey(ring.getVerificationKey(ring.getActiveKeyId())).build()
+                .parseClaimsJws(token).getBody().getSubject());
+    }
+
+    private SigningKeyRing ring(List<PublicKey> retiringKeys) throws Exception {
+        SigningKeyRing ring = new SigningKeyRing(new DefaultResourceLoader());
+        ring.load(List.of(active), retiringKeys, SignatureAlgorithm.RS256);
+        return ring;
+    }
+
+    private Path pem(String name, String type, Key key) throws Exception {
+        String body = Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(key.getEncoded());
+        return Files.writeString(keyDir.resolve(name), "-----BEGIN " + type + " KEY-----\n" + body + "\n-----END " + type + " KEY-----\n");
+    }
+}
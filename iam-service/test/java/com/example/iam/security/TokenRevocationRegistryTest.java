@@ -0,0 +1,145 @@
+package com.example.iam.security;
+
+import com.example.iam.entity.Token;
+import com.example.iam.repository.SubjectRevocationRepository;
+import com.example.iam.repository.TokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationRegistryTest {
+
+    @Mock
+    private TokenRepository tokenRepository;
+
+    @Mock
+    private SubjectRevocationRepository subjectRevocationRepository;
+
+    @InjectMocks
+    private TokenRevocationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(registry, "maxTokenLifetimeMs", 3_600_000L);
+        ReflectionTestUtils.setField(registry, "accessTokenLifetimeMs", 600_000L);
+        ReflectionTestUtils.setField(registry, "enabled", true);
+        ReflectionTestUtils.setField(registry, "pollOverlap", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(registry, "pageSize", 2);
+        LocalDateTime revokedAt = LocalDateTime.now().minusMinutes(5);
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
+        when(tokenRepository.findRevokedJtis(eq(Token.TokenType.ACCESS), any(), any(), eq(0L), any()))
+                .thenReturn(List.of(new Object[] {1L, "revoked-jti", expiresAt, revokedAt}, new Object[] {2L, "jti-2", expiresAt, revokedAt}));
+        when(tokenRepository.findRevokedJtis(eq(Token.TokenType.ACCESS), any(), any(), eq(2L), any()))
+                .thenReturn(Collections.singletonList(new Object[] {3L, "jti-3", expiresAt, revokedAt}));
+        when(subjectRevocationRepository.findByRevokedBeforeAfter(any())).thenReturn(Collections.emptyList());
+        registry.init();
+    }
+
+    @Test
+    void isRevoked_ShouldUseJtisLoadedPageByPageAtStartup() {
+        assertTrue(registry.isRevoked(token("revoked-jti", 1L, "alice", new Date())));
+        assertTrue(registry.isRevoked(token("jti-3", 1L, "alice", new Date())));
+        assertFalse(registry.isRevoked(token("other-jti", 1L, "alice", new Date())));
+    }
+
+    @Test
+    void poll_ShouldPickUpRevocationsOfOtherNodesSinceTheNewestOneSeen() {
+        // Arrange
+        LocalDateTime revokedAt = LocalDateTime.now();
+        when(tokenRepository.findRevokedJtis(eq(Token.TokenType.ACCESS), any(), any(), eq(0L), any()))
+                .thenReturn(Collections.singletonList(new Object[] {4L, "remote-jti", revokedAt.plusHours(1), revokedAt}));
+
+        // Act
+        registry.poll();
+        registry.poll();
+
+        // Assert
+        assertTrue(registry.isRevoked(token("remote-jti", 1L, "alice", new Date())));
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(tokenRepository, times(3)).findRevokedJtis(any(), since.capture(), any(), eq(0L), any());
+        assertEquals(revokedAt.minusMinutes(1), since.getAllValues().get(2));
+    }
+
+    @Test
+    void isAuthoritative_ShouldOnlyCoverAccessTokensWhenEnabled() {
+        // Arrange
+        VerifiedToken access = token("a", 1L, "alice", new Date());
+        access.getClaims().put("token_use", "access");
+        VerifiedToken refresh = token("b", 1L, "alice", new Date());
+        refresh.getClaims().put("token_use", "refresh");
+
+        // Act & Assert
+        assertTrue(registry.isAuthoritative(access));
+        assertFalse(registry.isAuthoritative(refresh));
+        assertFalse(registry.isAuthoritative(token("c", 1L, "alice", new Date())));
+        ReflectionTestUtils.setField(registry, "enabled", false);
+        assertFalse(registry.isAuthoritative(access));
+    }
+
+    @Test
+    void revokeIssuedUntil_ShouldRevokeOnlyTokensIssuedUpToTheEpoch() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        Date before = new Date(System.currentTimeMillis() - 60_000);
+        Date after = new Date(System.currentTimeMillis() + 60_000);
+
+        // Act
+        registry.revokeIssuedUntil(1L, "user", "alice", now);
+
+        // Assert
+        assertTrue(registry.isRevoked(token("a", 1L, "alice", before)));
+        assertFalse(registry.isRevoked(token("b", 1L, "alice", after)));
+        assertFalse(registry.isRevoked(token("c", 2L, "alice", before)));
+        assertFalse(registry.isRevoked(token("d", 1L, "bob", before)));
+    }
+
+    @Test
+    void revokeIssuedUntil_ShouldLeaveTokensIssuedInTheRevocationsOwnSecondToTheirJti() {
+        // Arrange
+        LocalDateTime revokedAt = LocalDateTime.now().withNano(500_000_000);
+        long revokedAtMs = revokedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        // Act
+        registry.revokeIssuedUntil(1L, "user", "alice", revokedAt);
+
+        // Assert
+        assertTrue(registry.isRevoked(token("a", 1L, "alice", new Date(revokedAtMs - 1_500))));
+        assertFalse(registry.isRevoked(token("b", 1L, "alice", new Date(revokedAtMs - 500))));
+    }
+
+    @Test
+    void revokeIssuedUntil_WithoutOrganizationShouldCoverEveryOrganization() {
+        // Act
+        registry.revokeIssuedUntil(null, "user", "superadmin", LocalDateTime.now());
+
+        // Assert
+        assertTrue(registry.isRevoked(token("a", 5L, "superadmin", new Date(System.currentTimeMillis() - 60_000))));
+    }
+
+    private static VerifiedToken token(String jti, Long organizationId, String subject, Date issuedAt) {
+        Claims claims = Jwts.claims().setId(jti).setSubject(subject).setIssuedAt(issuedAt);
+        claims.put("type", "user");
+        claims.put("organizationId", organizationId);
+        return new VerifiedToken("t." + jti, claims);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.iam.security;
+
+import com.example.iam.authorization.TokenRevocationEvent;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "maxTtl", Duration.ofSeconds(30));
+        cache.init();
+    }
+
+    @Test
+    void get_ShouldReturnVerifiedTokenUntilItExpires() {
+        // Arrange
+        VerifiedToken valid = token("a.b.c", "alice", 60_000);
+        VerifiedToken expired = token("d.e.f", "alice", -1_000);
+
+        // Act
+        cache.put(valid, cache.generation());
+        cache.put(expired, cache.generation());
+
+        // Assert
+        assertSame(valid, cache.get("a.b.c"));
+        assertNull(cache.get("d.e.f"));
+    }
+
+    @Test
+    void onTokenRevocation_ShouldDropOnlyTheRevokedToken() {
+        // Arrange
+        cache.put(token("a.b.c", "alice", 60_000), cache.generation());
+        cache.put(token("g.h.i", "alice", 60_000), cache.generation());
+        cache.put(token("j.k.l", "bob", 60_000), cache.generation());
+
+        // Act
+        cache.onTokenRevocation(new TokenRevocationEvent(1L, "alice", "a.b.c"));
+
+        // Assert
+        assertNull(cache.get("a.b.c"));
+        assertNotNull(cache.get("g.h.i"));
+
+        // Act
+        cache.onTokenRevocation(new TokenRevocationEvent(null, "alice"));
+
+        // Assert
+        assertNotNull(cache.get("g.h.i"));
+        assertNotNull(cache.get("j.k.l"));
+    }
+
+    @Test
+    void put_ShouldExpireEntriesAfterMaxTtl() {
+        // Arrange
+        ReflectionTestUtils.setField(cache, "maxTtl", Duration.ZERO);
+        cache.init();
+
+        // Act
+        cache.put(token("a.b.c", "alice", 60_000), cache.generation());
+
+        // Assert
+        assertNull(cache.get("a.b.c"));
+    }
+
+    @Test
+    void put_ShouldIgnoreVerificationThatRacedWithRevocation() {
+        // Arrange
+        long generation = cache.generation();
+        cache.onTokenRevocation(new TokenRevocationEvent(1L, "alice", "a.b.c"));
+
+        // Act
+        cache.put(token("a.b.c", "alice", 60_000), generation);
+
+        // Assert
+        assertNull(cache.get("a.b.c"));
+    }
+
+    private static VerifiedToken token(String compact, String subject, long expiresInMs) {
+        Claims claims = Jwts.claims()
+                .setSubject(subject)
+                .setExpiration(new Date(System.currentTimeMillis() + expiresInMs));
+        claims.put("organizationId", 1L);
+        claims.put("token_use", "access");
+        return new VerifiedToken(compact, claims);
+    }
+}
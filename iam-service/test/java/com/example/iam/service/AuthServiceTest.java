@@ -0,0 +1,179 @@
+package com.example.iam.service;
+
+import com.example.iam.dto.TokenResponse;
+import com.example.iam.entity.Organization;
+import com.example.iam.entity.User;
+import com.example.iam.exception.InvalidTokenException;
+import com.example.iam.repository.OrganizationRepository;
+import com.example.iam.repository.UserRepository;
+import com.example.iam.security.JwtTokenProvider;
+import com.example.iam.security.UserPrincipal;
+import com.example.iam.security.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OrganizationRepository organizationRepository;
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private TokenService tokenService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AuthService authService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(authService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(authService, "reuseGrace", Duration.ofSeconds(10));
+        authService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void refreshToken_ShouldRotateOnceWithinGraceWindow() {
+        // Arrange
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        VerifiedToken presented = refreshToken("fam-1", 2);
+        when(tokenProvider.verify("refresh")).thenReturn(presented);
+        Organization organization = new Organization();
+        organization.setId(1L);
+        User user = User.builder().username("alice").active(true).roles(new HashSet<>()).build();
+        user.setOrganization(organization);
+        when(organizationRepository.findById(1L)).thenReturn(Optional.of(organization));
+        when(userRepository.findByUsernameAndOrganizationId("alice", 1L)).thenReturn(Optional.of(user));
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(UserPrincipal.create(user, List.of()));
+        when(tokenProvider.generateAccessToken(any(), eq(1L), eq("fam-1"))).thenReturn("access");
+        when(tokenProvider.generateRefreshToken(any(), eq(1L), eq("fam-1"), eq(3))).thenReturn("refresh-3");
+
+        // Act
+        TokenResponse first = authService.refreshToken("refresh");
+        TokenResponse second = authService.refreshToken("refresh");
+
+        // Assert
+        assertSame(first, second);
+        assertEquals("refresh-3", first.getRefreshToken());
+        verify(tokenProvider, times(1)).generateRefreshToken(any(), anyLong(), anyString(), anyInt());
+    }
+
+    @Test
+    void refreshToken_ShouldRevokeFamilyWhenRotatedTokenIsReplayed() {
+        // Arrange
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(tokenProvider.verify("stale")).thenThrow(new InvalidTokenException("Token is revoked"));
+        VerifiedToken presented = refreshToken("fam-1", 1);
+        when(tokenProvider.verifySignature("stale")).thenReturn(presented);
+        when(tokenService.revokeFamily("fam-1", 1L, "alice")).thenReturn(2);
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> authService.refreshToken("stale"));
+        verify(tokenService).revokeFamily("fam-1", 1L, "alice");
+    }
+
+    @Test
+    void refreshToken_ShouldTreatTokenOlderThanLatestRotationAsReplayed() {
+        // Arrange
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        VerifiedToken presented = refreshToken("fam-1", 1);
+        when(tokenProvider.verify("old")).thenReturn(presented);
+        when(tokenProvider.verifySignature("old")).thenReturn(presented);
+        when(tokenService.findLatestRotation("fam-1")).thenReturn(2);
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> authService.refreshToken("old"));
+        verify(tokenService).revokeFamily("fam-1", 1L, "alice");
+        verify(tokenProvider, never()).generateRefreshToken(any(), anyLong(), anyString(), anyInt());
+    }
+
+    @Test
+    void refreshToken_ShouldRevokeFamilyOnceForConcurrentReplays() throws InterruptedException {
+        // Arrange
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        CountDownLatch verifying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(tokenProvider.verify("stale")).thenAnswer(invocation -> {
+            verifying.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw new InvalidTokenException("Token is revoked");
+        });
+        VerifiedToken presented = refreshToken("fam-1", 1);
+        when(tokenProvider.verifySignature("stale")).thenReturn(presented);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            Future<?> first = executor.submit(() -> authService.refreshToken("stale"));
+            assertTrue(verifying.await(5, TimeUnit.SECONDS));
+            Future<?> second = executor.submit(() -> authService.refreshToken("stale"));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (meterRegistry.counter("iam.auth.refreshes", "flight", "coalesced").count() < 1
+                    && System.currentTimeMillis() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Assert
+            assertInstanceOf(InvalidTokenException.class, assertThrows(ExecutionException.class, first::get).getCause());
+            assertInstanceOf(InvalidTokenException.class, assertThrows(ExecutionException.class, second::get).getCause());
+            verify(tokenService, times(1)).revokeFamily("fam-1", 1L, "alice");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private VerifiedToken refreshToken(String familyId, int rotation) {
+        VerifiedToken token = mock(VerifiedToken.class);
+        lenient().when(token.getSubject()).thenReturn("alice");
+        lenient().when(token.getSubjectType()).thenReturn(JwtTokenProvider.TYPE_USER);
+        lenient().when(token.getOrganizationId()).thenReturn(1L);
+        lenient().when(token.getFamilyId()).thenReturn(familyId);
+        lenient().when(token.getRotation()).thenReturn(rotation);
+        return token;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.iam.service;
+
+import com.example.iam.authorization.AuthorizationModel;
+import com.example.iam.authorization.AuthorizationModelLoader;
+import com.example.iam.authorization.AuthorizationModelRegistry;
+import com.example.iam.authorization.DecisionCache;
+import com.example.iam.authorization.condition.PolicyConditionCache;
+import com.example.iam.authorization.condition.PolicyConditionCompiler;
+import com.example.iam.entity.Permission;
+import com.example.iam.entity.Policy;
+import com.example.iam.entity.Resource;
+import com.example.iam.entity.Role;
+import com.example.iam.entity.User;
+import com.example.iam.repository.ClientApplicationRepository;
+import com.example.iam.repository.PolicyRepository;
+import com.example.iam.repository.ResourceRepository;
+import com.example.iam.repository.RoleRepository;
+import com.example.iam.repository.UserRepository;
+import com.example.iam.security.JwtTokenProvider;
+import com.example.iam.security.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorizationServiceTest {
+
+    private static final Long ORGANIZATION_ID = 1L;
+
+    @Mock
+    private AuthorizationModelRegistry modelRegistry;
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
+    @Mock
+    private DecisionCache decisionCache;
+
+    @Mock
+    private ResourceRepository resourceRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private ClientApplicationRepository clientApplicationRepository;
+
+    @Mock
+    private PolicyRepository policyRepository;
+
+    @InjectMocks
+    private AuthorizationService authorizationService;
+
+    private AuthorizationModel model;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(authorizationService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(authorizationService, "stateless", true);
+        authorizationService.init();
+
+        // editor grants doc:read and is allowed by a role condition; auditor is denied outright.
+        Permission read = Permission.builder().id(100L).name("doc:read").build();
+        Resource docs = Resource.builder().id(1L).name("docs").path("/docs")
+                .method(Resource.HttpMethod.GET).permissions(Set.of(read)).build();
+        Role editor = Role.builder().id(10L).name("editor").permissions(Set.of(read)).build();
+        when(resourceRepository.findByOrganizationIdWithPermissions(ORGANIZATION_ID)).thenReturn(List.of(docs));
+        when(userRepository.findByOrganizationIdWithRolesAndPermissions(ORGANIZATION_ID)).thenReturn(List.of(
+                User.builder().id(7L).username("alice").roles(Set.of(editor)).build(),
+                User.builder().id(8L).username("bob").build()));
+        when(roleRepository.findNamesAndIdsByOrganizationId(ORGANIZATION_ID)).thenReturn(List.of(
+                new Object[]{"editor", 10L}, new Object[]{"auditor", 11L}));
+        when(policyRepository.findByOrganizationId(ORGANIZATION_ID)).thenReturn(List.of(
+                Policy.builder().id(1L).subjectType(Policy.SubjectType.ROLE).subjectId(10L).resource(docs)
+                        .action("doc:read").effect(Policy.Effect.ALLOW)
+                        .conditionJson("{\"type\":\"role\",\"operator\":\"has\",\"value\":[\"editor\"]}").build(),
+                Policy.builder().id(2L).subjectType(Policy.SubjectType.ROLE).subjectId(11L).resource(docs)
+                        .action("doc:read").effect(Policy.Effect.DENY).build()));
+        model = new AuthorizationModelLoader(resourceRepository, userRepository, roleRepository,
+                clientApplicationRepository, policyRepository, new PolicyConditionCache(new PolicyConditionCompiler()))
+                .load(ORGANIZATION_ID, 1L);
+        when(modelRegistry.current(ORGANIZATION_ID)).thenReturn(model);
+        when(decisionCache.get(any(), any())).thenReturn(null);
+    }
+
+    @Test
+    void checkPermission_ShouldApplyDenyOfRoleStillClaimedAfterUserLeftIt() {
+        // Arrange
+        editorToken("alice", Set.of("editor", "auditor"));
+
+        // Act
+        boolean allowed = authorizationService.checkPermission("token", "/docs", "GET");
+
+        // Assert
+        assertFalse(allowed);
+    }
+
+    @Test
+    void checkPermission_ShouldUseClaimedRolesForRbacConditionsAndRolePolicies() {
+        // Arrange
+        editorToken("bob", Set.of("editor"));
+
+        // Act
+        boolean allowed = authorizationService.checkPermission("token", "/docs", "GET");
+
+        // Assert
+        assertTrue(allowed);
+    }
+
+    @Test
+    void checkPermission_ShouldApplyClaimedRolePoliciesForUserMissingFromModel() {
+        // Arrange
+        editorToken("carol", Set.of("editor", "auditor"));
+
+        // Act
+        boolean allowed = authorizationService.checkPermission("token", "/docs", "GET");
+
+        // Assert
+        assertFalse(allowed);
+    }
+
+    @Test
+    void checkPermission_ShouldFallBackToModelForTokenWithoutRolesClaim() {
+        // Arrange
+        verifiedToken("alice", null);
+
+        // Act
+        boolean allowed = authorizationService.checkPermission("token", "/docs", "GET");
+
+        // Assert
+        assertTrue(allowed);
+        verify(modelRegistry, never()).permissionBits(any(), any());
+    }
+
+    // A stateless user token claiming the given roles and the editor's permissions.
+    private void editorToken(String subject, Set<String> roles) {
+        VerifiedToken token = verifiedToken(subject, roles);
+        when(modelRegistry.permissionBits(model, token)).thenReturn(model.getPermissions().encode(List.of("doc:read")));
+    }
+
+    private VerifiedToken verifiedToken(String subject, Set<String> roles) {
+        VerifiedToken token = mock(VerifiedToken.class);
+        when(token.getSubject()).thenReturn(subject);
+        when(token.getSubjectType()).thenReturn(JwtTokenProvider.TYPE_USER);
+        when(token.getOrganizationId()).thenReturn(ORGANIZATION_ID);
+        when(token.getIssuedAt()).thenReturn(new Date());
+        when(token.getRoles()).thenReturn(roles);
+        when(tokenProvider.verify("token")).thenReturn(token);
+        return token;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.iam.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresTokenPartitionManagerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 10);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PostgresTokenPartitionManager partitionManager;
+
+    @BeforeEach
+    void setUp() {
+        partitionManager = new PostgresTokenPartitionManager(jdbcTemplate, new TransactionTemplate(transactionManager), 1, 1);
+    }
+
+    @Test
+    void partitionsToCreate_ShouldCoverYesterdayThroughPrecreateWindow() {
+        // Act
+        List<LocalDate> days = PostgresTokenPartitionManager.partitionsToCreate(
+                Set.of(TODAY, TODAY.plusDays(1)), TODAY, 3);
+
+        // Assert
+        assertEquals(List.of(TODAY.minusDays(1), TODAY.plusDays(2), TODAY.plusDays(3)), days);
+    }
+
+    @Test
+    void partitionsToDrop_ShouldOnlyReturnDaysPastRetention() {
+        // Act
+        List<LocalDate> days = PostgresTokenPartitionManager.partitionsToDrop(
+                Set.of(TODAY.minusDays(3), TODAY.minusDays(2), TODAY.minusDays(1), TODAY), TODAY, 1);
+
+        // Assert
+        assertEquals(List.of(TODAY.minusDays(3), TODAY.minusDays(2)), days);
+        assertEquals("tokens_p20240510", PostgresTokenPartitionManager.partitionName(TODAY));
+    }
+
+    @Test
+    void maintain_ShouldKeepDroppingPartitionsWhenCreatingOneFails() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        when(jdbcTemplate.queryForObject(contains("pg_partitioned_table"), eq(Integer.class))).thenReturn(1);
+        LocalDate expired = today.minusDays(5);
+        when(jdbcTemplate.queryForList(contains("pg_inherits"), eq(String.class))).thenReturn(List.of(
+                PostgresTokenPartitionManager.partitionName(expired), "tokens_default"));
+        doThrow(new DataAccessResourceFailureException("partition overlaps default"))
+                .when(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS " + PostgresTokenPartitionManager.partitionName(today.minusDays(1))));
+
+        // Act
+        partitionManager.maintain();
+
+        // Assert
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS " + PostgresTokenPartitionManager.partitionName(today.plusDays(1))));
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS " + PostgresTokenPartitionManager.partitionName(expired));
+        verify(transactionManager, atLeastOnce()).rollback(any());
+    }
+
+    @Test
+    void maintain_ShouldMoveRowsOutOfDefaultPartitionBeforeCreatingDay() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        when(jdbcTemplate.queryForObject(contains("pg_partitioned_table"), eq(Integer.class))).thenReturn(1);
+        String partition = PostgresTokenPartitionManager.partitionName(today);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT count(*) FROM tokens_default WHERE"), eq(Long.class),
+                any(), any())).thenAnswer(invocation -> today.atStartOfDay().equals(invocation.getArgument(2)) ? 3L : 0L);
+
+        // Act
+        partitionManager.maintain();
+
+        // Assert
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE tokens DETACH PARTITION tokens_default");
+        inOrder.verify(jdbcTemplate).execute(startsWith("CREATE TABLE " + partition + " PARTITION OF tokens"));
+        inOrder.verify(jdbcTemplate).update(startsWith("INSERT INTO tokens"), eq(today.atStartOfDay()), eq(today.plusDays(1).atStartOfDay()));
+        inOrder.verify(jdbcTemplate).update(startsWith("DELETE FROM tokens_default"), eq(today.atStartOfDay()), eq(today.plusDays(1).atStartOfDay()));
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE tokens ATTACH PARTITION tokens_default DEFAULT");
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.iam.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenExpirySweeperTest {
+
+    @Mock
+    private TokenService tokenService;
+
+    @InjectMocks
+    private TokenExpirySweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sweeper, "mode", "mark");
+        ReflectionTestUtils.setField(sweeper, "batchSize", 100);
+        ReflectionTestUtils.setField(sweeper, "maxBatches", 3);
+        ReflectionTestUtils.setField(sweeper, "retention", Duration.ZERO);
+    }
+
+    @Test
+    void sweep_ShouldStopAfterFirstPartialBatch() {
+        // Arrange
+        when(tokenService.markExpiredBatch(any(), eq(100))).thenReturn(100, 42);
+
+        // Act
+        sweeper.sweep();
+
+        // Assert
+        verify(tokenService, times(2)).markExpiredBatch(any(), eq(100));
+        verify(tokenService, never()).deleteExpiredBatch(any(), anyInt());
+    }
+
+    @Test
+    void sweep_ShouldBoundBatchesPerRun() {
+        // Arrange
+        ReflectionTestUtils.setField(sweeper, "mode", "delete");
+        when(tokenService.deleteExpiredBatch(any(), eq(100))).thenReturn(100);
+
+        // Act
+        sweeper.sweep();
+
+        // Assert
+        verify(tokenService, times(3)).deleteExpiredBatch(any(), eq(100));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.iam.service;
+
+import com.example.iam.authorization.AuthorizationModelRegistry;
+import com.example.iam.dto.TokenIntrospectionResponse;
+import com.example.iam.exception.InvalidTokenException;
+import com.example.iam.security.JwtTokenProvider;
+import com.example.iam.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenIntrospectionServiceTest {
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
+    @Mock
+    private AuthorizationModelRegistry modelRegistry;
+
+    @InjectMocks
+    private TokenIntrospectionService introspectionService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(introspectionService, "maxAge", Duration.ofSeconds(30));
+    }
+
+    @Test
+    void introspect_ShouldDescribeActiveTokenAndReportInvalidOnesInactive() {
+        // Arrange
+        VerifiedToken verified = verified("alice", JwtTokenProvider.TYPE_USER, Instant.now().plusSeconds(600));
+        when(tokenProvider.verify("good")).thenReturn(verified);
+        when(tokenProvider.verify("bad")).thenThrow(new InvalidTokenException("Token is revoked"));
+
+        // Act
+        TokenIntrospectionResponse active = introspectionService.introspect("good");
+        TokenIntrospectionResponse inactive = introspectionService.introspect("bad");
+
+        // Assert
+        assertTrue(active.isActive());
+        assertEquals("alice", active.getUsername());
+        assertNull(active.getClientId());
+        assertEquals("read", active.getScope());
+        assertEquals(7L, active.getOrganizationId());
+        assertFalse(inactive.isActive());
+        assertNull(inactive.getSub());
+    }
+
+    @Test
+    void introspectAll_ShouldVerifyDuplicateTokensOnceAndKeepRequestOrder() {
+        // Arrange
+        VerifiedToken verified = verified("svc", JwtTokenProvider.TYPE_CLIENT, Instant.now().plusSeconds(600));
+        when(tokenProvider.verify("a")).thenReturn(verified);
+        when(tokenProvider.verify("b")).thenThrow(new InvalidTokenException("Expired JWT token"));
+
+        // Act
+        List<TokenIntrospectionResponse> results = introspectionService.introspectAll(Arrays.asList("a", "b", "a", null));
+
+        // Assert
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).isActive());
+        assertEquals("svc", results.get(0).getClientId());
+        assertFalse(results.get(1).isActive());
+        assertSame(results.get(0), results.get(2));
+        assertFalse(results.get(3).isActive());
+        verify(tokenProvider, times(1)).verify("a");
+    }
+
+    @Test
+    void cacheDuration_ShouldNeverOutliveEarliestExpiry() {
+        // Arrange
+        long now = Instant.now().getEpochSecond();
+        TokenIntrospectionResponse soon = TokenIntrospectionResponse.builder().active(true).exp(now + 5).build();
+        TokenIntrospectionResponse later = TokenIntrospectionResponse.builder().active(true).exp(now + 600).build();
+
+        // Act & Assert
+        assertTrue(introspectionService.cacheDuration(List.of(later, soon)).getSeconds() <= 5);
+        assertEquals(Duration.ofSeconds(30), introspectionService.cacheDuration(List.of(later, TokenIntrospectionResponse.INACTIVE)));
+    }
+
+    private VerifiedToken verified(String subject, String type, Instant expiry) {
+        Claims claims = Jwts.claims().setSubject(subject).setExpiration(Date.from(expiry));
+        VerifiedToken verified = mock(VerifiedToken.class);
+        when(verified.getClaims()).thenReturn(claims);
+        when(verified.getSubject()).thenReturn(subject);
+        when(verified.getSubjectType()).thenReturn(type);
+        when(modelRegistry.permissionNames(verified)).thenReturn(Set.of("read"));
+        when(verified.getOrganizationId()).thenReturn(7L);
+        return verified;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.iam.service;
+
+import com.example.iam.entity.Token;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TokenWriteBehindTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private TokenWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        // Hold the writer inside its first flush so rows stay pending while the test inspects them.
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new int[0][];
+        });
+        writeBehind = new TokenWriteBehind(jdbcTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(writeBehind, "enabled", true);
+        ReflectionTestUtils.setField(writeBehind, "singleNode", true);
+        ReflectionTestUtils.setField(writeBehind, "capacity", 2);
+        ReflectionTestUtils.setField(writeBehind, "batchSize", 10);
+        ReflectionTestUtils.setField(writeBehind, "flushInterval", Duration.ofMillis(10));
+        writeBehind.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        writeBehind.shutdown();
+    }
+
+    @Test
+    void enqueue_ShouldKeepTokenVisibleAndRevocableUntilFlushed() {
+        // Act
+        assertTrue(writeBehind.enqueue(token("hash-1", "client-a")));
+
+        // Assert
+        assertEquals(Boolean.TRUE, writeBehind.isValid("hash-1"));
+        assertNull(writeBehind.isValid("unknown"));
+        assertEquals(1, writeBehind.revokePending(t -> "client-a".equals(t.getClientId())).size());
+        assertEquals(Boolean.FALSE, writeBehind.isValid("hash-1"));
+    }
+
+    @Test
+    void enqueue_ShouldRejectWhenCapacityIsExhausted() {
+        // Act & Assert
+        assertTrue(writeBehind.enqueue(token("hash-1", "client-a")));
+        assertTrue(writeBehind.enqueue(token("hash-2", "client-a")));
+        assertFalse(writeBehind.enqueue(token("hash-3", "client-a")));
+    }
+
+    @Test
+    void flush_ShouldReleasePendingRows() {
+        // Arrange
+        writeBehind.enqueue(token("hash-1", "client-a"));
+
+        // Act
+        release.countDown();
+
+        // Assert
+        verify(jdbcTemplate, timeout(5000)).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (writeBehind.isValid("hash-1") != null && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertNull(writeBehind.isValid("hash-1"));
+    }
+
+    @Test
+    void init_ShouldFailWithoutSingleNodeConfirmation() {
+        // Arrange
+        TokenWriteBehind clustered = new TokenWriteBehind(jdbcTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(clustered, "enabled", true);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, clustered::init);
+    }
+
+    private static Token token(String hash, String clientId) {
+        return Token.builder()
+                .token("jwt-" + hash)
+                .tokenHash(hash)
+                .jti(hash)
+                .clientId(clientId)
+                .tokenType(Token.TokenType.ACCESS)
+                .createdAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+}